@@ -0,0 +1,43 @@
+package com.MounimDev.Ecommercedev.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.MounimDev.Ecommercedev.service.impl.CatalogVersionService;
+import com.MounimDev.Ecommercedev.service.impl.CatalogVersionService.CatalogVersion;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Conditional GET support for the public catalog endpoints.
+ * Adds a strong ETag and Last-Modified derived from the catalog version, and answers a matching
+ * If-None-Match / If-Modified-Since with 304 before the controller (and so the database) is reached.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersionService catalogVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        // Admin-only endpoints are left alone: method security runs after interceptors
+        if (!(handler instanceof HandlerMethod handlerMethod) || handlerMethod.hasMethodAnnotation(PreAuthorize.class)) {
+            return true;
+        }
+
+        CatalogVersion version = catalogVersionService.current();
+        boolean notModified = new ServletWebRequest(request, response)
+                .checkNotModified(catalogVersionService.etag(version), version.lastModified());
+        return !notModified;
+    }
+}
@@ -0,0 +1,46 @@
+package com.MounimDev.Ecommercedev.config;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.entity.IdSequences;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves each id sequence past the highest id already in its table. Orders and order items used
+ * to take ids from AUTO_INCREMENT, so a freshly created sequence table would start inside the
+ * range of existing rows.
+ */
+@Component
+@DependsOn("entityManagerFactory") // the sequence tables exist once the schema has been updated
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    // sequence table -> table whose ids it generates
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                // Past a whole allocation block, whichever end of the block the optimizer hands out first
+                jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(id), 0) + ? FROM " + table + "))", IdSequences.ALLOCATION_SIZE + 1);
+            } catch (DataAccessException e) {
+                log.warn("Could not align id sequence {} with table {}: {}", sequence, table, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.MounimDev.Ecommercedev.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.service.interf.AnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AnalyticsController {
+
+	private final AnalyticsService analyticsService;
+	
+	// Defaults to the last 30 days, one total per day
+	@GetMapping("/sales")
+	public ResponseEntity<Response> getSales(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "day") String groupBy,
+			@RequestParam(required = false) String status){
+		LocalDate end = to != null ? to : LocalDate.now();
+		LocalDate start = from != null ? from : end.minusDays(29);
+		OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+		return ResponseEntity.ok(analyticsService.getSales(start, end, groupBy, orderStatus));
+	}
+	
+	// Recomputes the rollups from the order items, archived ones included, e.g. after fixing order data by hand
+	@PostMapping("/sales/rebuild")
+	public ResponseEntity<Response> rebuildSalesRollups(){
+		return ResponseEntity.ok(analyticsService.rebuildSalesRollups());
+	}
+
+}
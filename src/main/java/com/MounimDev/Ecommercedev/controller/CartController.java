@@ -0,0 +1,55 @@
+package com.MounimDev.Ecommercedev.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.service.interf.CartService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/cart")
+@RequiredArgsConstructor
+public class CartController {
+
+	private final CartService cartService;
+	
+	@GetMapping
+	public ResponseEntity<Response> getCart(){
+		return ResponseEntity.ok(cartService.getCart());
+	}
+	
+	@PostMapping("/items/{productId}")
+	public ResponseEntity<Response> addItem(@PathVariable Long productId, @RequestParam(defaultValue = "1") int quantity){
+		return ResponseEntity.ok(cartService.addItem(productId, quantity));
+	}
+	
+	@PutMapping("/items/{productId}")
+	public ResponseEntity<Response> setItemQuantity(@PathVariable Long productId, @RequestParam int quantity){
+		return ResponseEntity.ok(cartService.setItemQuantity(productId, quantity));
+	}
+	
+	@DeleteMapping("/items/{productId}")
+	public ResponseEntity<Response> removeItem(@PathVariable Long productId){
+		return ResponseEntity.ok(cartService.removeItem(productId));
+	}
+	
+	@DeleteMapping
+	public ResponseEntity<Response> clearCart(){
+		return ResponseEntity.ok(cartService.clearCart());
+	}
+	
+	@PostMapping("/checkout")
+	public ResponseEntity<Response> checkout(){
+		return ResponseEntity.ok(cartService.checkout());
+	}
+
+}
@@ -1,5 +1,9 @@
 package com.MounimDev.Ecommercedev.controller;
 
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,8 +18,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.MounimDev.Ecommercedev.dto.CategoryDto;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.ProductField;
+import com.MounimDev.Ecommercedev.service.impl.CatalogResponseCache;
 import com.MounimDev.Ecommercedev.service.interf.CategoryService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -24,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 public class CategoryController {
 	
 	private final CategoryService categoryService;
+	private final CatalogResponseCache catalogResponseCache;
 
 	@PostMapping("/create")
 	@PreAuthorize("hasAuthority('ADMIN')")
@@ -33,8 +42,8 @@ public class CategoryController {
 	}
 	
 	@GetMapping("/get-all")
-	public ResponseEntity<Response> getAllCaregories(){
-		return ResponseEntity.ok(categoryService.getAllCategories());
+	public void getAllCaregories(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		catalogResponseCache.write("category:all", request, response, categoryService::getAllCategories);
 	}
 	
 	
@@ -59,11 +68,25 @@ public class CategoryController {
 	}
 	
 	@GetMapping("/get-products-by-category/{categoryId}")
-	public ResponseEntity<Response> getProductsByCategory(
+	public void getProductsByCategory(
 	    @PathVariable Long categoryId,
 	    @RequestParam(defaultValue = "0") int page,
-	    @RequestParam(defaultValue = "8") int size) {
-	    return ResponseEntity.ok(categoryService.getProductsByCategory(categoryId, page, size));
+	    @RequestParam(defaultValue = "8") int size,
+	    @RequestParam(required = false) String cursor, // present (even empty) switches to keyset mode
+	    @RequestParam(defaultValue = "id,asc") String sort,
+	    @RequestParam(defaultValue = "false") boolean specs, // specifications are left out of list views unless asked for
+	    @RequestParam(required = false) String fields, // e.g. "id,name,price,imageUrl"
+	    HttpServletRequest request,
+	    HttpServletResponse response) throws IOException {
+	    Set<ProductField> productFields = ProductField.parse(fields, specs);
+	    String fieldsKey = productFields.stream().map(ProductField::jsonName).collect(Collectors.joining(","));
+	    if (cursor != null) {
+	        catalogResponseCache.write("category:" + categoryId + ":products:cursor:" + sort + ":" + cursor + ":" + size + ":" + fieldsKey,
+	                request, response, () -> categoryService.getProductsByCategory(categoryId, sort, cursor, size, productFields));
+	        return;
+	    }
+	    catalogResponseCache.write("category:" + categoryId + ":products:" + page + ":" + size + ":" + fieldsKey, request, response,
+	            () -> categoryService.getProductsByCategory(categoryId, page, size, productFields));
 	}
 	
 	
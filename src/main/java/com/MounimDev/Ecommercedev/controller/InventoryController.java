@@ -0,0 +1,35 @@
+package com.MounimDev.Ecommercedev.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.service.interf.InventoryService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+	private final InventoryService inventoryService;
+	
+	@GetMapping("/{productId}")
+	public ResponseEntity<Response> getStock(@PathVariable Long productId){
+		return ResponseEntity.ok(inventoryService.getStock(productId));
+	}
+	
+	@PutMapping("/{productId}")
+	@PreAuthorize("hasAuthority('ADMIN')")
+	public ResponseEntity<Response> setStock(@PathVariable Long productId, @RequestParam long quantity){
+		return ResponseEntity.ok(inventoryService.setStock(productId, quantity));
+	}
+
+}
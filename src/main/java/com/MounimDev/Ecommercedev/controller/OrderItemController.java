@@ -1,11 +1,14 @@
 package com.MounimDev.Ecommercedev.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,13 +16,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusBulkRequest;
 import com.MounimDev.Ecommercedev.dto.OrderRequest;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
 import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.service.impl.IdempotencyService;
+import com.MounimDev.Ecommercedev.service.impl.OrderItemExportService;
 import com.MounimDev.Ecommercedev.service.interf.OrderItemService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,10 +39,34 @@ import lombok.RequiredArgsConstructor;
 public class OrderItemController {
 
 	private final OrderItemService orderItemService;
+	private final OrderItemExportService orderItemExportService;
+	private final IdempotencyService idempotencyService;
 	
 	 @PostMapping("/create")
-	    public ResponseEntity<Response> placeOrder(@RequestBody OrderRequest orderRequest){
-	        return ResponseEntity.ok(orderItemService.placeOrder(orderRequest));
+	    public ResponseEntity<Response> placeOrder(@RequestBody OrderRequest orderRequest,
+	            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+	        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+	            return ResponseEntity.ok(orderItemService.placeOrder(orderRequest));
+	        }
+	        // Retries with the same key get the first result instead of placing the order again
+	        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, orderRequest,
+	                () -> orderItemService.placeOrder(orderRequest)));
+	    }
+	 
+	 // Answers 202 with a reference as soon as the order is validated; it is saved shortly after
+	 @PostMapping("/create-async")
+	    public ResponseEntity<Response> placeOrderAsync(@RequestBody OrderRequest orderRequest,
+	            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+	        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+	            return ResponseEntity.accepted().body(orderItemService.placeOrderAsync(orderRequest));
+	        }
+	        return ResponseEntity.accepted().body(idempotencyService.execute(idempotencyKey, orderRequest,
+	                () -> orderItemService.placeOrderAsync(orderRequest)));
+	    }
+	 
+	 @GetMapping("/status/{reference}")
+	    public ResponseEntity<Response> getOrderStatus(@PathVariable String reference){
+	        return ResponseEntity.ok(orderItemService.getOrderStatus(reference));
 	    }
 	 
 	 @PutMapping("/update-item-status/{orderItemId}")
@@ -43,6 +76,13 @@ public class OrderItemController {
 	    }
 	 
 	 
+	 // Ids or filter in the body, see OrderItemStatusBulkRequest
+	 @PutMapping("/update-item-status/bulk")
+	    @PreAuthorize("hasAuthority('ADMIN')")
+	    public ResponseEntity<Response> updateOrderItemStatuses(@RequestBody OrderItemStatusBulkRequest request){
+	        return ResponseEntity.ok(orderItemService.updateOrderItemStatuses(request));
+	    }
+	 
 	 @GetMapping("/filter")
 	    @PreAuthorize("hasAuthority('ADMIN')")
 	    public ResponseEntity<Response> filterOrderItems(
@@ -51,16 +91,43 @@ public class OrderItemController {
 	            @RequestParam(required = false) String status,
 	            @RequestParam(required = false) Long itemId,
 	            @RequestParam(defaultValue = "0") int page,
-	            @RequestParam(defaultValue = "1000") int size
+	            @RequestParam(defaultValue = "1000") int size,
+	            @RequestParam(required = false) String cursor, // present (even empty) switches to keyset mode: cheap deep pages, no totals
+	            @RequestParam(required = false) String fields // e.g. "id,status,createdAt"; product and user are only loaded when listed
 
 	            ){
-	        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
 	        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+	        if (cursor != null) {
+	            return ResponseEntity.ok(orderItemService.filterOrderItems(orderStatus, startDate, endDate, itemId, cursor, size,
+	                    OrderItemField.parse(fields)));
+	        }
+	        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
 
-	        return ResponseEntity.ok(orderItemService.filterOrderItems(orderStatus, startDate, endDate, itemId, pageable));
+	        return ResponseEntity.ok(orderItemService.filterOrderItems(orderStatus, startDate, endDate, itemId, pageable,
+	                OrderItemField.parse(fields)));
 
 	    }
 	 
-	 
-	 
+	 // Same filters as /filter, streamed in batches as CSV (default) or NDJSON
+	 @GetMapping("/export")
+	    @PreAuthorize("hasAuthority('ADMIN')")
+	    public ResponseEntity<StreamingResponseBody> exportOrderItems(
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)LocalDateTime startDate,
+	            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)LocalDateTime endDate,
+	            @RequestParam(required = false) String status,
+	            @RequestParam(required = false) Long itemId,
+	            @RequestParam(defaultValue = "csv") String format
+	            ){
+	        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+	        OrderItemExportService.Format exportFormat = OrderItemExportService.Format.valueOf(format.toUpperCase());
+
+	        StreamingResponseBody body = out ->
+	                orderItemExportService.export(orderStatus, startDate, endDate, itemId, exportFormat, out);
+
+	        boolean csv = exportFormat == OrderItemExportService.Format.CSV;
+	        return ResponseEntity.ok()
+	                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"order-items." + (csv ? "csv" : "ndjson") + "\"")
+	                .body(body);
+	    }
 }
@@ -1,19 +1,24 @@
 package com.MounimDev.Ecommercedev.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,18 +30,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.MounimDev.Ecommercedev.dto.ProductDto;
 import com.MounimDev.Ecommercedev.dto.Response;
 import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 import com.MounimDev.Ecommercedev.enums.ProductType;
 import com.MounimDev.Ecommercedev.exception.InvalidCredentialsException;
 import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.service.impl.CatalogResponseCache;
+import com.MounimDev.Ecommercedev.service.impl.ProductExportService;
 import com.MounimDev.Ecommercedev.service.interf.ProductService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -48,6 +59,8 @@ public class ProductController {
     
     private final ProductService productService;
     private final ObjectMapper objectMapper;
+    private final CatalogResponseCache catalogResponseCache;
+    private final ProductExportService productExportService;
     
     @PostMapping("/create")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -207,7 +220,9 @@ public class ProductController {
                                 .build()
                         );
                     }
-                    specifications = existingProductDto.getSpecifications();
+                    specifications = existingProductDto.getSpecifications() != null
+                            ? existingProductDto.getSpecifications().asMap()
+                            : null;
                 }
 
                 // Cannot have price
@@ -347,8 +362,44 @@ public class ProductController {
 
 
     @GetMapping("/get-by-product-id/{productId}")
-    public ResponseEntity<Response> getProductById(@PathVariable Long productId){
-        return ResponseEntity.ok(productService.getProductById(productId));
+    public void getProductById(@PathVariable Long productId,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        catalogResponseCache.write("product:" + productId, request, response,
+                () -> productService.getProductById(productId));
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getProductCacheStats() {
+        return ResponseEntity.ok(productService.getProductCacheStats());
+    }
+
+    // Full catalog as NDJSON, streamed chunk by chunk; gzip=true compresses it on the fly
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) ProductType type,
+            @RequestParam(required = false) Boolean purchasable,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+                    productExportService.exportNdjson(type, purchasable, categoryId, compressed);
+                }
+            } else {
+                productExportService.exportNdjson(type, purchasable, categoryId, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/get-all")
@@ -356,11 +407,19 @@ public class ProductController {
     public ResponseEntity<Response> getAllProducts(
     	    @RequestParam(defaultValue = "id,desc") String sort, // Changed from String[] to String
     	    @RequestParam(defaultValue = "0") int page,
-    	    @RequestParam(defaultValue = "10") int size
+    	    @RequestParam(defaultValue = "10") int size,
+    	    @RequestParam(required = false) String cursor, // present (even empty) switches to keyset mode
+    	    @RequestParam(defaultValue = "false") boolean specs,
+    	    @RequestParam(required = false) String fields // e.g. "id,name,price,imageUrl"; only these are read and returned
     	) {
     	
     	log.info("Received sort parameter: {}", sort);
     	
+    	Set<ProductField> productFields = ProductField.parse(fields, specs);
+    	if (cursor != null) {
+    	    return ResponseEntity.ok(productService.getAllProducts(sort, cursor, size, productFields));
+    	}
+    	
     	String[] parts = sort.split(","); 
     	
     	List<String> allowedFields = List.of("id", "name", "price", "createdAt");
@@ -386,7 +445,7 @@ public class ProductController {
     	            : Sort.Direction.DESC;
     	        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, parts[0]));
 
-    	        Response response = productService.getAllProducts(pageable);
+    	        Response response = productService.getAllProducts(pageable, productFields);
     	        return ResponseEntity.ok(response);
 
     	    } catch (IllegalArgumentException e) {
@@ -411,9 +470,19 @@ public class ProductController {
     public ResponseEntity<Response> searchForProduct(
             @RequestParam String searchValue,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String fields) { // e.g. "id,name,price,imageUrl"
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.searchProduct(searchValue, pageable));
+        return ResponseEntity.ok(productService.searchProduct(searchValue, pageable, facets,
+                ProductField.parse(fields, ProductField.ALL)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Response> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
     }
     
     
@@ -422,12 +491,23 @@ public class ProductController {
     public ResponseEntity<Response> filterProducts(
             @RequestParam(required = false) ProductType type,
             @RequestParam(required = false) Boolean purchasable,
+            @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String cursor, // present (even empty) switches to keyset mode
+            @RequestParam(defaultValue = "id,asc") String sort,
+            @RequestParam(defaultValue = "false") boolean specs,
+            @RequestParam(required = false) String fields) {
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.filterProducts(type, purchasable, categoryId, minPrice, maxPrice, sort, cursor, size,
+                    ProductField.parse(fields, specs)));
+        }
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.filterProducts(type, purchasable, minPrice, maxPrice, pageable));
+        return ResponseEntity.ok(productService.filterProducts(type, purchasable, categoryId, minPrice, maxPrice, pageable, facets,
+                ProductField.parse(fields, ProductField.ALL)));
     }
     
     @GetMapping("/specs-schema/{productType}")
@@ -439,26 +519,38 @@ public class ProductController {
     @GetMapping("/purchasable/paginated")
     public ResponseEntity<Response> getPurchasableProductsPaginated(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor, // present (even empty) switches to keyset mode
+            @RequestParam(defaultValue = "id,asc") String sort,
+            @RequestParam(defaultValue = "false") boolean specs,
+            @RequestParam(required = false) String fields) {
+        Set<ProductField> productFields = ProductField.parse(fields, specs);
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.getPurchasableProducts(sort, cursor, size, productFields));
+        }
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.getPurchasableProductsPaginated(pageable));
+        return ResponseEntity.ok(productService.getPurchasableProductsPaginated(pageable, productFields));
     }
 
     @GetMapping("/display-only/paginated")
     public ResponseEntity<Response> getDisplayOnlyProductsPaginated(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean specs,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.getDisplayOnlyProductsPaginated(pageable));
+        return ResponseEntity.ok(productService.getDisplayOnlyProductsPaginated(pageable, ProductField.parse(fields, specs)));
     }
 
     @GetMapping("/by-type/paginated/{productType}")
     public ResponseEntity<Response> getProductsByTypePaginated(
             @PathVariable ProductType productType,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean specs,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.getProductsByTypePaginated(productType, pageable));
+        return ResponseEntity.ok(productService.getProductsByTypePaginated(productType, pageable, ProductField.parse(fields, specs)));
     }
     
     
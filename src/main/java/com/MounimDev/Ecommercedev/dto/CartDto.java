@@ -0,0 +1,21 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartDto {
+
+	private List<CartItemDto> items;
+	private int totalQuantity;
+	private BigDecimal estimatedTotal;
+}
@@ -0,0 +1,22 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartItemDto {
+
+	private Long productId;
+	private String name;
+	// Current unit price, from the catalog; the order is priced again at checkout
+	private BigDecimal price;
+	private int quantity;
+}
@@ -0,0 +1,24 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+/**
+ * Moves many order items to one status. Either list the item ids, or leave them out and select
+ * the items with the filter fields (current status and/or creation date range).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderItemStatusBulkRequest {
+
+	private String status;
+	private List<Long> orderItemIds;
+
+	private String currentStatus;
+	private LocalDateTime startDate;
+	private LocalDateTime endDate;
+}
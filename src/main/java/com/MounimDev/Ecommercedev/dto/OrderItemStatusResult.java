@@ -0,0 +1,17 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+public record OrderItemStatusResult(Long id, OrderStatus previous, Outcome outcome) {
+
+	public enum Outcome {
+		UPDATED,
+		UNCHANGED,
+		NOT_FOUND,
+		INVALID_TRANSITION,
+		INSUFFICIENT_STOCK,
+		// Changed by someone else between the read and the update
+		CONFLICT,
+		FAILED
+	}
+}
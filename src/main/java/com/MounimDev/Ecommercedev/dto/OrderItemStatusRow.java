@@ -0,0 +1,11 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+// The columns a status change needs, read without loading the entity
+public record OrderItemStatusRow(Long id, OrderStatus status, Long productId, int quantity, BigDecimal price,
+		LocalDateTime createdAt) {
+}
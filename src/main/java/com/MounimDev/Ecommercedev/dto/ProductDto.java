@@ -2,9 +2,9 @@ package com.MounimDev.Ecommercedev.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 
+import com.MounimDev.Ecommercedev.entity.ProductSpecifications;
 import com.MounimDev.Ecommercedev.enums.ProductType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -24,11 +24,11 @@ public class ProductDto {
 	private String productCode;
 	private String name;
 	private ProductType type;
-	private Map<String, Object> specifications;
+	private ProductSpecifications specifications;
 	private String description;
 	private String imageUrl;
 	private BigDecimal price;
-	 private boolean purchasable;
+	private Boolean purchasable;
 	private CategoryDto category;
 	private Long categoryId;
 	private String model;
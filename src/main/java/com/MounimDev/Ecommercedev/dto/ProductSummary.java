@@ -0,0 +1,26 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.MounimDev.Ecommercedev.entity.ProductSpecifications;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+/**
+ * Read-only projection of product columns for list views; never a managed entity.
+ * Only the selected columns are set, every other component is null.
+ */
+public record ProductSummary(
+		Long id,
+		String productCode,
+		String name,
+		ProductType type,
+		BigDecimal price,
+		Boolean purchasable,
+		String imageUrl,
+		String model,
+		Long categoryId,
+		LocalDateTime createdAt,
+		String description,
+		ProductSpecifications specifications) {
+}
@@ -49,9 +49,12 @@ public class Response {
 	private OrderDto order;
 	private List<OrderDto> OrderList;
 	
+	private CartDto cart;
+	
 	   private Map<String, Object> data;
 	   
 	   private long totalCount;
+	   private String nextCursor;
 	
 	   
 	   public boolean isSuccess() {
@@ -0,0 +1,7 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import java.math.BigDecimal;
+
+// One group of a sales report: a day, a status, a product id or a category id
+public record SalesTotalDto(Object key, long quantity, BigDecimal revenue) {
+}
@@ -0,0 +1,20 @@
+package com.MounimDev.Ecommercedev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDto {
+
+	private Long productId;
+	private String name;
+	private String productCode;
+	private String model;
+	private long unitsSold;
+}
@@ -0,0 +1,48 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// A finished order item moved out of order_items by the archiver; same id and columns, read-only
+@Entity
+@Data
+@Table(name = "order_items_archive", indexes = @Index(name = "idx_order_items_archive_created_at", columnList = "created_at"))
+public class ArchivedOrderItem implements BaseOrderItem {
+	@Id
+	private Long id;
+	
+	private int quantity;
+	private BigDecimal price;
+	private OrderStatus status;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id")
+	private User user;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "product_id")
+	private Product product;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id")
+	private Order order;
+	
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+	
+	@Column(name = "archived_at")
+	private LocalDateTime archivedAt;
+	
+}
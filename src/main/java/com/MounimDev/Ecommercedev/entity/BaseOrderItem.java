@@ -0,0 +1,27 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+/**
+ * What a live {@link OrderItem} and an {@link ArchivedOrderItem} share, so filters and mappings
+ * are written once for both tables. The attribute names double as the JPA paths the filters use.
+ */
+public interface BaseOrderItem {
+
+	Long getId();
+
+	int getQuantity();
+
+	BigDecimal getPrice();
+
+	OrderStatus getStatus();
+
+	LocalDateTime getCreatedAt();
+
+	Product getProduct();
+
+	User getUser();
+}
@@ -0,0 +1,25 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// One cart line as last written by the cart store; the store, not this table, is read while running
+@Data
+@Entity
+@Table(name = "cart_items")
+public class CartItem {
+	@EmbeddedId
+	private CartItemId id;
+	
+	@Column(nullable = false)
+	private int quantity;
+	
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,22 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemId implements Serializable {
+
+	@Column(name = "user_id")
+	private Long userId;
+	
+	@Column(name = "product_id")
+	private Long productId;
+}
@@ -0,0 +1,13 @@
+package com.MounimDev.Ecommercedev.entity;
+
+/**
+ * Shared settings of the pooled id generators. Each sequence hands out this many ids per database
+ * round trip, and the JDBC batch size is set to match so one batch never waits on the generator.
+ */
+public final class IdSequences {
+
+	public static final int ALLOCATION_SIZE = 50;
+
+	private IdSequences() {
+	}
+}
@@ -0,0 +1,26 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Stock on hand for a product. Products without a row are not stock-tracked.
+@Data
+@Entity
+@Table(name = "inventory")
+public class Inventory {
+	@Id
+	@Column(name = "product_id")
+	private Long productId;
+	
+	@Column(nullable = false)
+	private long available;
+	
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,26 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// One stock change not yet folded into inventory; written as it happens, so a crash loses none
+@Data
+@Entity
+@Table(name = "inventory_journal")
+public class InventoryJournal {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@Column(name = "product_id", nullable = false)
+	private Long productId;
+	
+	@Column(nullable = false)
+	private long delta;
+
+}
@@ -13,20 +13,27 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Entity
 @Data
 @Table(name = "order_items")
-public class OrderItem {
+public class OrderItem implements BaseOrderItem {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+	@SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
 	private Long id;
 	
 	private int quantity;
 	private BigDecimal price;
 	private OrderStatus status;
+
+	// Optimistic lock: an update based on a stale read fails instead of overwriting
+	@Version
+	private long version;
 	
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id")
@@ -2,15 +2,13 @@ package com.MounimDev.Ecommercedev.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 import org.hibernate.annotations.CreationTimestamp;
 
 import com.MounimDev.Ecommercedev.enums.ProductType;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -18,6 +16,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -29,7 +28,12 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "products")
+// The keyset scrolls seek on (sort column, id); each sort has its index so a page starts with an index range read
+@Table(name = "products", indexes = {
+		@Index(name = "idx_products_price_id", columnList = "price, id"),
+		@Index(name = "idx_products_name_id", columnList = "name, id"),
+		@Index(name = "idx_products_created_at_id", columnList = "created_at, id")
+})
 public class Product {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,7 +53,8 @@ public class Product {
 	    private ProductType type;
 	 
 	 @Column(columnDefinition = "json", nullable = true)
-	 private String specifications;  // Contains all Excel
+	 @Convert(converter = ProductSpecificationsConverter.class)
+	 private ProductSpecifications specifications;  // Contains all Excel
 	 
 	 
 	private String description;
@@ -69,27 +74,4 @@ public class Product {
 	@Column(name = "created_at")
 	@CreationTimestamp
 	private  LocalDateTime createdAt;
-	
-	
-	
-	
-	
-	// Helper methods to work with JSON specifications
-    public Map<String, Object> getSpecificationsMap() {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(specifications, new TypeReference<Map<String, Object>>(){});
-        } catch (Exception e) {
-            return Map.of();
-        }
-    }
-    
-    public void setSpecificationsMap(Map<String, Object> specs) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            this.specifications = mapper.writeValueAsString(specs);
-        } catch (Exception e) {
-            this.specifications = "{}";
-        }
-    }
 }
@@ -0,0 +1,158 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable product specifications, as stored in the products.specifications JSON column.
+ *
+ * Values loaded from the database keep the column's JSON text and are parsed at most once,
+ * the first time {@link #asMap()} is called; Jackson writes that text back out as-is.
+ * Values built from a map (request input) are serialized once, when the entity is flushed.
+ *
+ * Stored text that is not a JSON object is logged and treated as empty everywhere: reads see an
+ * empty map, responses and the next save write {}. The column type rejects invalid JSON, so the
+ * text written back as-is is always well formed.
+ */
+@Slf4j
+public final class ProductSpecifications implements JsonSerializable {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final String json;
+    private final ObjectMapper objectMapper;
+    private volatile Map<String, Object> values;
+    // Set when the stored text turned out not to parse; it is then never written out again
+    private volatile boolean malformed;
+
+    private ProductSpecifications(String json, ObjectMapper objectMapper, Map<String, Object> values) {
+        this.json = json;
+        this.objectMapper = objectMapper;
+        this.values = values;
+    }
+
+    public static ProductSpecifications fromJson(String json, ObjectMapper objectMapper) {
+        if (json.isBlank()) {
+            return new ProductSpecifications(null, null, Map.of());
+        }
+        if (json.strip().charAt(0) != '{') {
+            log.warn("Stored specifications are not a JSON object, treated as empty: {}", abbreviate(json));
+            return new ProductSpecifications(null, null, Map.of());
+        }
+        return new ProductSpecifications(json, objectMapper, null);
+    }
+
+    @JsonCreator
+    public static ProductSpecifications of(Map<String, Object> values) {
+        return new ProductSpecifications(null, null, freeze(values));
+    }
+
+    /**
+     * Read-only view of the specifications; nested maps and lists are read-only too.
+     */
+    public Map<String, Object> asMap() {
+        Map<String, Object> parsed = values;
+        if (parsed == null) {
+            synchronized (this) {
+                parsed = values;
+                if (parsed == null) {
+                    parsed = parse();
+                    values = parsed;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    public boolean isEmpty() {
+        return asMap().isEmpty();
+    }
+
+    public String toJson(ObjectMapper mapper) throws JsonProcessingException {
+        return json != null && !malformed ? json : mapper.writeValueAsString(asMap());
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (json != null && !malformed) {
+            gen.writeRawValue(json);
+        } else {
+            gen.writeObject(asMap());
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private Map<String, Object> parse() {
+        try {
+            return freeze(objectMapper.readValue(json, MAP_TYPE));
+        } catch (JsonProcessingException e) {
+            malformed = true;
+            log.warn("Stored specifications do not parse, treated as empty: {} ({})", abbreviate(json), e.getOriginalMessage());
+            return Map.of();
+        }
+    }
+
+    private static String abbreviate(String json) {
+        return json.length() > 100 ? json.substring(0, 100) + "..." : json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(T value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, element) -> copy.put(String.valueOf(key), freeze(element)));
+            return (T) Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(element -> copy.add(freeze(element)));
+            return (T) Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    // Same stored text is cheap to compare and covers the common (unchanged) case without parsing
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductSpecifications other)) {
+            return false;
+        }
+        if (json != null && json.equals(other.json)) {
+            return true;
+        }
+        return asMap().equals(other.asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return json != null ? json : String.valueOf(values);
+    }
+}
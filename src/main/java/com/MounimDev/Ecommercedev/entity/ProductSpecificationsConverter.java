@@ -0,0 +1,41 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import org.hibernate.annotations.Immutable;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maps the specifications JSON column using the application's shared ObjectMapper.
+ * Marked immutable so Hibernate neither deep-copies nor re-parses the value for dirty checking.
+ */
+@Component
+@Converter
+@Immutable
+@RequiredArgsConstructor
+public class ProductSpecificationsConverter implements AttributeConverter<ProductSpecifications, String> {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String convertToDatabaseColumn(ProductSpecifications specifications) {
+        if (specifications == null) {
+            return null;
+        }
+        try {
+            return specifications.toJson(objectMapper);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid specifications format", e);
+        }
+    }
+
+    @Override
+    public ProductSpecifications convertToEntityAttribute(String json) {
+        return json != null ? ProductSpecifications.fromJson(json, objectMapper) : null;
+    }
+}
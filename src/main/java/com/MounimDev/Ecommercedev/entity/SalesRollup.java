@@ -0,0 +1,25 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Quantity and revenue of the order items created on one day, per status, over one dimension
+@Data
+@Entity
+@Table(name = "sales_rollups")
+public class SalesRollup {
+	@EmbeddedId
+	private SalesRollupId id;
+	
+	@Column(nullable = false)
+	private long quantity;
+	
+	@Column(nullable = false, precision = 19, scale = 2)
+	private BigDecimal revenue;
+
+}
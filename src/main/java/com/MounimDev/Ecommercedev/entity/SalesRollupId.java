@@ -0,0 +1,36 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.enums.RollupDimension;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupId implements Serializable {
+
+	@Column(name = "sale_date")
+	private LocalDate saleDate;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(length = 16)
+	private RollupDimension dimension;
+	
+	// Product or category id; 0 for TOTAL rows
+	@Column(name = "dimension_id")
+	private long dimensionId;
+	
+	// Stored like order_items.status, so rebuilds can copy it as is
+	private OrderStatus status;
+}
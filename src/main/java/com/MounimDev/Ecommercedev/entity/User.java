@@ -61,6 +61,10 @@ public class User {
 	@Column(name = "verification_token_expiry")
 	private LocalDateTime verificationTokenExpiry;
 	
+	// Set by the archiver once some of the user's order items were moved to order_items_archive
+	@Column(name = "order_history_archived", nullable = false)
+	private boolean orderHistoryArchived;
+	
 	@Column(name = "created_at")
 	private final LocalDateTime createdAt = LocalDateTime.now();
 	
@@ -0,0 +1,76 @@
+package com.MounimDev.Ecommercedev.enums;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Order item fields a client can ask for with {@code fields=}. The product and the user (with
+ * address) are associations: they are only joined when asked for.
+ */
+public enum OrderItemField {
+
+    ID("id"),
+    QUANTITY("quantity"),
+    PRICE("price"),
+    STATUS("status"),
+    CREATED_AT("createdAt"),
+    PRODUCT("product"),
+    USER("user");
+
+    public static final Set<OrderItemField> ALL = Collections.unmodifiableSet(EnumSet.allOf(OrderItemField.class));
+
+    private final String jsonName;
+
+    OrderItemField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields=} value such as "id,status,product".
+     * A missing or blank value means every field.
+     */
+    public static Set<OrderItemField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<OrderItemField> parsed = EnumSet.noneOf(OrderItemField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Unknown order field: " + trimmed + ". Allowed fields: " + names())));
+        }
+        return parsed.isEmpty() ? ALL : Collections.unmodifiableSet(parsed);
+    }
+
+    // Association paths to fetch with the page for the given fields
+    public static List<String> fetchPaths(Set<OrderItemField> fields) {
+        List<String> paths = new ArrayList<>();
+        if (fields.contains(PRODUCT)) {
+            paths.add("product");
+        }
+        if (fields.contains(USER)) {
+            paths.add("user");
+            paths.add("user.address");
+        }
+        return paths;
+    }
+
+    private static String names() {
+        return Arrays.stream(values()).map(OrderItemField::jsonName).collect(Collectors.joining(", "));
+    }
+}
@@ -1,5 +1,20 @@
 package com.MounimDev.Ecommercedev.enums;
 
 public enum OrderStatus {
-	PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED, RETURNED
+	PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED, RETURNED;
+
+	/**
+	 * PENDING -> CONFIRMED -> SHIPPED -> DELIVERED. Items can be cancelled until they ship and
+	 * returned once shipped; a cancelled item can be revived to PENDING, a returned one is final.
+	 */
+	public boolean canTransitionTo(OrderStatus next) {
+		return switch (this) {
+			case PENDING -> next == CONFIRMED || next == CANCELLED;
+			case CONFIRMED -> next == SHIPPED || next == CANCELLED;
+			case SHIPPED -> next == DELIVERED || next == RETURNED;
+			case DELIVERED -> next == RETURNED;
+			case CANCELLED -> next == PENDING;
+			case RETURNED -> false;
+		};
+	}
 }
@@ -0,0 +1,99 @@
+package com.MounimDev.Ecommercedev.enums;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Product fields a client can ask for with {@code fields=}. Each one knows its JSON name and the
+ * entity attribute it is read from, so a request for a few fields selects only those columns.
+ */
+public enum ProductField {
+
+    ID("id", "id"),
+    PRODUCT_CODE("productCode", "productCode"),
+    NAME("name", "name"),
+    TYPE("type", "type"),
+    PRICE("price", "price"),
+    PURCHASABLE("purchasable", "purchasable"),
+    IMAGE_URL("imageUrl", "imageUrl"),
+    MODEL("model", "model"),
+    CATEGORY_ID("categoryId", "category.id"),
+    CREATED_AT("createdAt", "createdAt"),
+    DESCRIPTION("description", "description"),
+    SPECIFICATIONS("specifications", "specifications");
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    // What list views returned before fields= existed: everything but specifications and the timestamp
+    public static final Set<ProductField> LIST_DEFAULTS = Collections.unmodifiableSet(
+            EnumSet.complementOf(EnumSet.of(CREATED_AT, SPECIFICATIONS)));
+
+    private final String jsonName;
+    private final String attribute;
+
+    ProductField(String jsonName, String attribute) {
+        this.jsonName = jsonName;
+        this.attribute = attribute;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // Dotted path from the Product entity, e.g. "category.id"
+    public String attribute() {
+        return attribute;
+    }
+
+    public static ProductField fromAttribute(String attribute) {
+        for (ProductField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown product attribute: " + attribute);
+    }
+
+    /**
+     * Parses a comma-separated {@code fields=} value such as "id,name,price,imageUrl".
+     * A missing or blank value means {@code defaults}.
+     */
+    public static Set<ProductField> parse(String fields, Set<ProductField> defaults) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        EnumSet<ProductField> parsed = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Unknown product field: " + trimmed + ". Allowed fields: " + names())));
+        }
+        return parsed.isEmpty() ? defaults : Collections.unmodifiableSet(parsed);
+    }
+
+    // List views: the requested fields, or the list defaults, plus specifications when specs=true
+    public static Set<ProductField> parse(String fields, boolean withSpecifications) {
+        Set<ProductField> parsed = parse(fields, LIST_DEFAULTS);
+        return withSpecifications ? with(parsed, SPECIFICATIONS) : parsed;
+    }
+
+    public static Set<ProductField> with(Set<ProductField> fields, ProductField... extra) {
+        EnumSet<ProductField> combined = EnumSet.noneOf(ProductField.class);
+        combined.addAll(fields);
+        combined.addAll(Arrays.asList(extra));
+        return Collections.unmodifiableSet(combined);
+    }
+
+    private static String names() {
+        return Arrays.stream(values()).map(ProductField::jsonName).collect(Collectors.joining(", "));
+    }
+}
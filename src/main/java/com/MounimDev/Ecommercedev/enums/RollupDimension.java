@@ -0,0 +1,6 @@
+package com.MounimDev.Ecommercedev.enums;
+
+// What a sales rollup row is totalled over: everything, one product or one category
+public enum RollupDimension {
+	TOTAL, PRODUCT, CATEGORY
+}
@@ -1,5 +1,6 @@
 package com.MounimDev.Ecommercedev.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -35,5 +36,50 @@ public class GlobalExceptionHandler{
 				.build();
 		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
 	}
+	
+	@ExceptionHandler(InvalidRequestException.class)
+	public ResponseEntity<Response> handleInvalidRequestException(InvalidRequestException ex,WebRequest request){
+		Response errorResponse = Response.builder().status(HttpStatus.BAD_REQUEST.value())
+				.message(ex.getMessage())
+				.build();
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+	
+	// The key is fine, the body does not match the request it was first used for
+	@ExceptionHandler(IdempotencyKeyReusedException.class)
+	public ResponseEntity<Response> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex,WebRequest request){
+		Response errorResponse = Response.builder().status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+				.message(ex.getMessage())
+				.build();
+		return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
+	// The request clashes with the resource's current state, e.g. a status it cannot move from
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<Response> handleConflictException(ConflictException ex,WebRequest request){
+		Response errorResponse = Response.builder().status(HttpStatus.CONFLICT.value())
+				.message(ex.getMessage())
+				.build();
+		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+	}
+	
+	// The request is valid, the stock it asks for is not there right now
+	@ExceptionHandler(InsufficientStockException.class)
+	public ResponseEntity<Response> handleInsufficientStockException(InsufficientStockException ex,WebRequest request){
+		Response errorResponse = Response.builder().status(HttpStatus.CONFLICT.value())
+				.message(ex.getMessage())
+				.build();
+		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+	}
+	
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<Response> handleServiceUnavailableException(ServiceUnavailableException ex,WebRequest request){
+		Response errorResponse = Response.builder().status(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.message(ex.getMessage())
+				.build();
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(errorResponse);
+	}
 
 }
@@ -0,0 +1,8 @@
+package com.MounimDev.Ecommercedev.exception;
+
+public class InvalidRequestException extends RuntimeException {
+	
+	public InvalidRequestException(String message) {
+		super(message);
+	}
+}
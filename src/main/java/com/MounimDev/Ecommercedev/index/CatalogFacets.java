@@ -0,0 +1,22 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+/**
+ * Counts over a set of matching products: per type, per category id, purchasable vs display-only
+ * and per price bucket. A bucket covers [min, max); the last one has no upper bound.
+ */
+public record CatalogFacets(
+        Map<ProductType, Long> types,
+        Map<Long, Long> categories,
+        long purchasable,
+        long displayOnly,
+        List<PriceBucket> prices) {
+
+    public record PriceBucket(BigDecimal min, BigDecimal max, long count) {
+    }
+}
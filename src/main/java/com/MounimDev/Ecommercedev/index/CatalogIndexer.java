@@ -0,0 +1,150 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
+import com.MounimDev.Ecommercedev.repository.OrderItemRepo;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-memory catalog indexes in step with the products table:
+ * builds them from a full scan at startup and applies each committed product change afterwards.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogIndexer {
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final EnumSet<OrderStatus> NOT_SOLD = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    private final ProductRepo productRepo;
+    private final OrderItemRepo orderItemRepo;
+    private final ArchivedOrderItemRepo archivedOrderItemRepo;
+    private final EntityDtoMapper entityDtoMapper;
+    private final ProductCatalogIndex productCatalogIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSpecIndex productSpecIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+
+    // Changes committed while a reload runs, applied again on top of the rebuilt indexes; null when idle
+    private List<Runnable> replay;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        List<ProductDto> snapshot = new ArrayList<>();
+        try {
+            // Keyset chunks keep each persistence context small however large the catalog is
+            long lastId = 0;
+            List<Product> chunk;
+            do {
+                chunk = productRepo.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_CHUNK_SIZE));
+                for (Product product : chunk) {
+                    snapshot.add(entityDtoMapper.mapProductToDtobasic(product));
+                    lastId = product.getId();
+                }
+            } while (chunk.size() == LOAD_CHUNK_SIZE);
+
+            productCatalogIndex.rebuild(snapshot);
+            productSearchIndex.rebuild(snapshot);
+            productSpecIndex.rebuild(snapshot);
+            productSuggestIndex.rebuild(snapshot, unitsSoldByProduct());
+        } finally {
+            // The scan may have read a product before a later change to it committed
+            synchronized (this) {
+                replay.forEach(Runnable::run);
+                if (!replay.isEmpty()) {
+                    log.info("Replayed {} catalog changes made during the reload", replay.size());
+                }
+                replay = null;
+            }
+        }
+        log.info("Catalog indexes loaded {} products in {} ms", snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    public void productSaved(ProductDto product) {
+        apply(() -> upsert(product));
+    }
+
+    public void productDeleted(Long productId) {
+        apply(() -> remove(productId));
+    }
+
+    public void categoryDeleted(Long categoryId) {
+        apply(() -> removeCategory(categoryId));
+    }
+
+    // Upserts and removes are idempotent, so a change may be applied now and replayed later
+    private synchronized void apply(Runnable change) {
+        if (replay != null) {
+            replay.add(change);
+        }
+        change.run();
+    }
+
+    private void upsert(ProductDto product) {
+        productCatalogIndex.upsert(product);
+        productSearchIndex.upsert(product);
+        productSpecIndex.upsert(product);
+        productSuggestIndex.upsert(product);
+    }
+
+    private void remove(Long productId) {
+        productCatalogIndex.remove(productId);
+        productSearchIndex.remove(productId);
+        productSpecIndex.remove(productId);
+        productSuggestIndex.remove(productId);
+    }
+
+    private void removeCategory(Long categoryId) {
+        for (Long productId : productCatalogIndex.removeCategory(categoryId)) {
+            productSearchIndex.remove(productId);
+            productSpecIndex.remove(productId);
+            productSuggestIndex.remove(productId);
+        }
+    }
+
+    // Popularity used to rank suggestions
+    public void productSold(Long productId, int quantity) {
+        productSuggestIndex.adjustSales(productId, quantity);
+    }
+
+    // Cancelled and returned units stop counting as sold, and count again if the item is revived
+    public void statusChanged(Long productId, int quantity, OrderStatus previous, OrderStatus next) {
+        int delta = (NOT_SOLD.contains(next) ? 0 : quantity) - (NOT_SOLD.contains(previous) ? 0 : quantity);
+        if (delta != 0) {
+            productSuggestIndex.adjustSales(productId, delta);
+        }
+    }
+
+    private Map<Long, Long> unitsSoldByProduct() {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (Object[] row : orderItemRepo.sumQuantityByProduct(NOT_SOLD)) {
+            unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : archivedOrderItemRepo.sumQuantityByProduct(NOT_SOLD)) {
+            unitsSold.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        return unitsSold;
+    }
+}
@@ -0,0 +1,15 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.util.List;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+
+/**
+ * One page of matching products, the exact number of matches and, when requested, their facets.
+ */
+public record CatalogPage(List<ProductDto> products, long total, CatalogFacets facets) {
+
+    public CatalogPage(List<ProductDto> products, long total) {
+        this(products, total, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.math.BigDecimal;
+
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+/**
+ * Filter over the in-memory catalog. Every criterion is optional; a null one matches everything.
+ * Price bounds are inclusive and, like the SQL BETWEEN they replace, never match products without a price.
+ */
+public record CatalogQuery(ProductType type, Boolean purchasable, Long categoryId,
+                           BigDecimal minPrice, BigDecimal maxPrice) {
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+}
@@ -0,0 +1,561 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory snapshot of the whole catalog, used to answer product filters without SQL.
+ *
+ * Every product occupies a slot; slots are handed out in ascending id order, so walking a bitset
+ * returns products in id order. Type, purchasable flag and category are bitsets over slots, and
+ * prices are kept as long cents both per slot and as a column sorted by price for range lookups.
+ * Any filter is a bitset intersection and its exact count is the cardinality of the result;
+ * facet counts are aggregated in one more walk over that same result.
+ *
+ * The stored DTOs are shared between requests and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class ProductCatalogIndex {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+    // Lower bounds of the price facet buckets, in cents
+    private static final long[] PRICE_BUCKET_CENTS = { 0, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000 };
+    // Integer digits an amount may have before it is clamped to the ends of the price range
+    private static final int MAX_AMOUNT_DIGITS = 18;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Slot-indexed columns
+    private long[] ids = new long[0];
+    private ProductDto[] products = new ProductDto[0];
+    private long[] priceCents = new long[0];
+    private long[] categoryIds = new long[0];
+    private int slotCount;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final EnumMap<ProductType, BitSet> byType = new EnumMap<>(ProductType.class);
+    private final BitSet purchasable = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+
+    // Priced slots ordered by (cents, slot)
+    private long[] sortedCents = new long[0];
+    private int[] sortedSlots = new int[0];
+    private int sortedCount;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(List<ProductDto> snapshot) {
+        List<ProductDto> ordered = new ArrayList<>(snapshot);
+        ordered.sort(Comparator.comparing(ProductDto::getId));
+
+        lock.writeLock().lock();
+        try {
+            load(ordered);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog index built with {} products", ordered.size());
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(product.getId());
+            if (slot != null) {
+                unindex(slot);
+                index(slot, product);
+            } else if (slotCount == 0 || product.getId() > ids[slotCount - 1]) {
+                ensureCapacity(slotCount + 1);
+                ids[slotCount] = product.getId();
+                index(slotCount++, product);
+            } else {
+                // An older id committed after a newer one: rebuild to keep slots in id order
+                List<ProductDto> all = liveProducts();
+                all.add(product);
+                all.sort(Comparator.comparing(ProductDto::getId));
+                load(all);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            live.clear(slot);
+            products[slot] = null;
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every product of a deleted category and returns their ids.
+     */
+    public List<Long> removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            BitSet slots = byCategory.get(categoryId);
+            if (slots == null) {
+                return List.of();
+            }
+            List<Long> removed = new ArrayList<>(slots.cardinality());
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                removed.add(ids[slot]);
+                slotById.remove(ids[slot]);
+                unindex(slot);
+                live.clear(slot);
+                products[slot] = null;
+            }
+            compactIfSparse();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductDto get(Long productId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(productId);
+            return slot != null ? products[slot] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the products priced exactly at the given amount.
+     */
+    public long[] idsWithPrice(BigDecimal price) {
+        if (price.precision() - price.scale() > MAX_AMOUNT_DIGITS) {
+            return new long[0];
+        }
+        BigDecimal cents = price.movePointRight(2);
+        if (cents.signum() != 0 && cents.stripTrailingZeros().scale() > 0) {
+            return new long[0];
+        }
+        long exact = toCents(price, RoundingMode.UNNECESSARY);
+
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(exact);
+            int to = upperBound(exact);
+            long[] matches = new long[to - from];
+            for (int i = from; i < to; i++) {
+                matches[i - from] = ids[sortedSlots[i]];
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CatalogPage query(CatalogQuery query, long offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(query);
+            List<ProductDto> page = new ArrayList<>(Math.min(limit, 64));
+            long skipped = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0 && page.size() < limit; slot = matches.nextSetBit(slot + 1)) {
+                if (skipped++ >= offset) {
+                    page.add(products[slot]);
+                }
+            }
+            return new CatalogPage(page, matches.cardinality(), withFacets ? aggregate(matches) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit matching products strictly after the given id (from the start when null), in id order.
+     * Seeks straight to the id's slot, so the cost does not depend on how far into the results it is.
+     */
+    public List<ProductDto> seek(CatalogQuery query, Long afterId, boolean ascending, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(query);
+            int slot;
+            if (afterId == null) {
+                slot = ascending ? 0 : slotCount - 1;
+            } else {
+                int found = Arrays.binarySearch(ids, 0, slotCount, afterId);
+                int insertion = found >= 0 ? found : -found - 1;
+                slot = ascending ? (found >= 0 ? found + 1 : insertion) : insertion - 1;
+            }
+
+            List<ProductDto> page = new ArrayList<>(Math.min(limit, 64));
+            slot = ascending ? matches.nextSetBit(slot) : (slot >= 0 ? matches.previousSetBit(slot) : -1);
+            while (slot >= 0 && page.size() < limit) {
+                page.add(products[slot]);
+                slot = ascending ? matches.nextSetBit(slot + 1) : (slot > 0 ? matches.previousSetBit(slot - 1) : -1);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CatalogFacets facets(CatalogQuery query) {
+        lock.readLock().lock();
+        try {
+            return aggregate(match(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facets over an arbitrary set of products, such as search results; unknown ids are ignored.
+     */
+    public CatalogFacets facets(Collection<Long> productIds) {
+        lock.readLock().lock();
+        try {
+            BitSet slots = new BitSet(slotCount);
+            for (Long productId : productIds) {
+                Integer slot = slotById.get(productId);
+                if (slot != null) {
+                    slots.set(slot);
+                }
+            }
+            return aggregate(slots);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Matching ---
+
+    private BitSet match(CatalogQuery query) {
+        BitSet result = (BitSet) live.clone();
+        if (query.type() != null) {
+            result.and(byType.getOrDefault(query.type(), new BitSet()));
+        }
+        if (query.purchasable() != null) {
+            if (query.purchasable()) {
+                result.and(purchasable);
+            } else {
+                result.andNot(purchasable);
+            }
+        }
+        if (query.categoryId() != null) {
+            result.and(byCategory.getOrDefault(query.categoryId(), new BitSet()));
+        }
+        if (query.hasPriceRange()) {
+            long min = query.minPrice() != null ? toCents(query.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE + 1;
+            long max = query.maxPrice() != null ? toCents(query.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            applyPriceRange(result, min, max);
+        }
+        return result;
+    }
+
+    private void applyPriceRange(BitSet candidates, long min, long max) {
+        if (min > max) {
+            candidates.clear();
+            return;
+        }
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        int candidateCount = candidates.cardinality();
+
+        if (candidateCount <= to - from) {
+            // Fewer candidates than products in range: check the per-slot price column instead
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                long cents = priceCents[slot];
+                if (cents == NO_PRICE || cents < min || cents > max) {
+                    candidates.clear(slot);
+                }
+            }
+        } else {
+            BitSet inRange = new BitSet(slotCount);
+            for (int i = from; i < to; i++) {
+                inRange.set(sortedSlots[i]);
+            }
+            candidates.and(inRange);
+        }
+    }
+
+    // --- Facets ---
+
+    // Single walk over the matching slots, reading only the slot columns
+    private CatalogFacets aggregate(BitSet slots) {
+        ProductType[] types = ProductType.values();
+        long[] typeCounts = new long[types.length];
+        long[] bucketCounts = new long[PRICE_BUCKET_CENTS.length];
+        Map<Long, Long> categoryCounts = new HashMap<>();
+        long total = 0;
+        long purchasableCount = 0;
+
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            total++;
+            ProductType type = products[slot].getType();
+            if (type != null) {
+                typeCounts[type.ordinal()]++;
+            }
+            if (categoryIds[slot] != NO_CATEGORY) {
+                categoryCounts.merge(categoryIds[slot], 1L, Long::sum);
+            }
+            if (purchasable.get(slot)) {
+                purchasableCount++;
+            }
+            long cents = priceCents[slot];
+            if (cents != NO_PRICE && cents >= 0) {
+                int bucket = PRICE_BUCKET_CENTS.length - 1;
+                while (cents < PRICE_BUCKET_CENTS[bucket]) {
+                    bucket--;
+                }
+                bucketCounts[bucket]++;
+            }
+        }
+
+        Map<ProductType, Long> typeFacet = new EnumMap<>(ProductType.class);
+        for (ProductType type : types) {
+            if (typeCounts[type.ordinal()] > 0) {
+                typeFacet.put(type, typeCounts[type.ordinal()]);
+            }
+        }
+
+        // Largest categories first
+        Map<Long, Long> categoryFacet = new LinkedHashMap<>();
+        categoryCounts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> categoryFacet.put(entry.getKey(), entry.getValue()));
+
+        List<CatalogFacets.PriceBucket> priceFacet = new ArrayList<>(PRICE_BUCKET_CENTS.length);
+        for (int i = 0; i < PRICE_BUCKET_CENTS.length; i++) {
+            BigDecimal min = BigDecimal.valueOf(PRICE_BUCKET_CENTS[i], 2);
+            BigDecimal max = i + 1 < PRICE_BUCKET_CENTS.length ? BigDecimal.valueOf(PRICE_BUCKET_CENTS[i + 1], 2) : null;
+            priceFacet.add(new CatalogFacets.PriceBucket(min, max, bucketCounts[i]));
+        }
+
+        return new CatalogFacets(typeFacet, categoryFacet, purchasableCount, total - purchasableCount, priceFacet);
+    }
+
+    // First position whose price is >= cents
+    private int lowerBound(long cents) {
+        int lo = 0;
+        int hi = sortedCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedCents[mid] < cents) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First position whose price is > cents
+    private int upperBound(long cents) {
+        int lo = 0;
+        int hi = sortedCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedCents[mid] <= cents) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // --- Maintenance (write lock held) ---
+
+    private void load(List<ProductDto> ordered) {
+        int count = ordered.size();
+        ids = new long[count];
+        products = new ProductDto[count];
+        priceCents = new long[count];
+        categoryIds = new long[count];
+        slotCount = count;
+        slotById.clear();
+        live.clear();
+        byType.clear();
+        purchasable.clear();
+        byCategory.clear();
+
+        int priced = 0;
+        for (int slot = 0; slot < count; slot++) {
+            ProductDto product = ordered.get(slot);
+            ids[slot] = product.getId();
+            setColumns(slot, product);
+            if (priceCents[slot] != NO_PRICE) {
+                priced++;
+            }
+        }
+
+        // Bulk-build the sorted price column once instead of inserting slot by slot
+        long[][] pairs = new long[priced][];
+        int next = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (priceCents[slot] != NO_PRICE) {
+                pairs[next++] = new long[] { priceCents[slot], slot };
+            }
+        }
+        Arrays.sort(pairs, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        sortedCents = new long[Math.max(priced, 16)];
+        sortedSlots = new int[Math.max(priced, 16)];
+        for (int i = 0; i < priced; i++) {
+            sortedCents[i] = pairs[i][0];
+            sortedSlots[i] = (int) pairs[i][1];
+        }
+        sortedCount = priced;
+    }
+
+    private void index(int slot, ProductDto product) {
+        setColumns(slot, product);
+        if (priceCents[slot] != NO_PRICE) {
+            insertPrice(slot);
+        }
+    }
+
+    private void setColumns(int slot, ProductDto product) {
+        products[slot] = product;
+        slotById.put(product.getId(), slot);
+        live.set(slot);
+        if (product.getType() != null) {
+            byType.computeIfAbsent(product.getType(), t -> new BitSet()).set(slot);
+        }
+        if (Boolean.TRUE.equals(product.getPurchasable())) {
+            purchasable.set(slot);
+        }
+        categoryIds[slot] = product.getCategoryId() != null ? product.getCategoryId() : NO_CATEGORY;
+        if (product.getCategoryId() != null) {
+            byCategory.computeIfAbsent(product.getCategoryId(), c -> new BitSet()).set(slot);
+        }
+        priceCents[slot] = product.getPrice() != null ? toCents(product.getPrice(), RoundingMode.HALF_UP) : NO_PRICE;
+    }
+
+    private void unindex(int slot) {
+        ProductDto old = products[slot];
+        if (old != null && old.getType() != null) {
+            BitSet typeSlots = byType.get(old.getType());
+            if (typeSlots != null) {
+                typeSlots.clear(slot);
+            }
+        }
+        purchasable.clear(slot);
+        if (categoryIds[slot] != NO_CATEGORY) {
+            BitSet categorySlots = byCategory.get(categoryIds[slot]);
+            if (categorySlots != null) {
+                categorySlots.clear(slot);
+                if (categorySlots.isEmpty()) {
+                    byCategory.remove(categoryIds[slot]);
+                }
+            }
+            categoryIds[slot] = NO_CATEGORY;
+        }
+        if (priceCents[slot] != NO_PRICE) {
+            removePrice(slot);
+            priceCents[slot] = NO_PRICE;
+        }
+    }
+
+    private void insertPrice(int slot) {
+        long cents = priceCents[slot];
+        int pos = lowerBound(cents);
+        while (pos < sortedCount && sortedCents[pos] == cents && sortedSlots[pos] < slot) {
+            pos++;
+        }
+        if (sortedCount == sortedCents.length) {
+            int capacity = Math.max(16, sortedCount * 2);
+            sortedCents = Arrays.copyOf(sortedCents, capacity);
+            sortedSlots = Arrays.copyOf(sortedSlots, capacity);
+        }
+        System.arraycopy(sortedCents, pos, sortedCents, pos + 1, sortedCount - pos);
+        System.arraycopy(sortedSlots, pos, sortedSlots, pos + 1, sortedCount - pos);
+        sortedCents[pos] = cents;
+        sortedSlots[pos] = slot;
+        sortedCount++;
+    }
+
+    private void removePrice(int slot) {
+        long cents = priceCents[slot];
+        for (int pos = lowerBound(cents); pos < sortedCount && sortedCents[pos] == cents; pos++) {
+            if (sortedSlots[pos] == slot) {
+                System.arraycopy(sortedCents, pos + 1, sortedCents, pos, sortedCount - pos - 1);
+                System.arraycopy(sortedSlots, pos + 1, sortedSlots, pos, sortedCount - pos - 1);
+                sortedCount--;
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(16, Math.max(required, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacity);
+        products = Arrays.copyOf(products, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+    }
+
+    // Deleted slots are only reclaimed by rebuilding; do it once they outnumber the live ones
+    private void compactIfSparse() {
+        if (slotCount > 1024 && live.cardinality() < slotCount / 2) {
+            load(liveProducts());
+        }
+    }
+
+    private List<ProductDto> liveProducts() {
+        List<ProductDto> all = new ArrayList<>(live.cardinality() + 1);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            all.add(products[slot]);
+        }
+        return all;
+    }
+
+    // Bounded before scaling: a value like 1e999999999 would otherwise expand into a huge BigInteger
+    static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        int magnitude = amount.precision() - amount.scale();
+        if (magnitude > MAX_AMOUNT_DIGITS) {
+            return amount.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+        }
+        if (magnitude < -MAX_AMOUNT_DIGITS) {
+            // Far below a cent: rounds exactly like a tenth of a cent with the same sign
+            amount = BigDecimal.valueOf(amount.signum(), 3);
+        }
+        try {
+            return amount.movePointRight(2).setScale(0, roundingMode).longValueExact();
+        } catch (ArithmeticException e) {
+            return amount.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+        }
+    }
+}
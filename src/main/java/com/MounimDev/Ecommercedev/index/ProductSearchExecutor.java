@@ -0,0 +1,112 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs a product search in a single pass over the in-memory matchers.
+ *
+ * Exact price, full-text (BM25) and specification matches are merged into one score per product,
+ * so a product is counted once however many matchers it hits. Results are ranked by score
+ * (ties by id) and only the requested page is selected, with a bounded heap; the total is the
+ * exact number of distinct matches. Facets, when asked for, are counted over the same match set.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchExecutor {
+
+    // An exact price hit outranks any text relevance, a specification hit adds a fixed boost
+    private static final double PRICE_MATCH_SCORE = 100.0;
+    private static final double SPEC_MATCH_SCORE = 1.0;
+    // Queries read as a price must fit in a long number of cents
+    private static final int MAX_PRICE_LENGTH = 32;
+    private static final int MAX_PRICE_DIGITS = 18;
+
+    private static final Comparator<Map.Entry<Long, Double>> RANKING =
+            Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final ProductCatalogIndex productCatalogIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSpecIndex productSpecIndex;
+
+    public boolean isReady() {
+        return productCatalogIndex.isReady() && productSearchIndex.isReady() && productSpecIndex.isReady();
+    }
+
+    public CatalogPage search(String query, long offset, int limit, boolean withFacets) {
+        Map<Long, Double> scores = new HashMap<>(productSearchIndex.score(query));
+
+        for (long productId : productSpecIndex.search(query)) {
+            scores.merge(productId, SPEC_MATCH_SCORE, Double::sum);
+        }
+
+        BigDecimal price = parsePrice(query);
+        if (price != null) {
+            for (long productId : productCatalogIndex.idsWithPrice(price)) {
+                scores.merge(productId, PRICE_MATCH_SCORE, Double::sum);
+            }
+        }
+
+        CatalogFacets facets = withFacets ? productCatalogIndex.facets(scores.keySet()) : null;
+        return new CatalogPage(rank(scores, offset, limit), scores.size(), facets);
+    }
+
+    private List<ProductDto> rank(Map<Long, Double> scores, long offset, int limit) {
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        int keep = (int) Math.min(scores.size(), offset + limit);
+
+        // Min-heap of the best `keep` entries: the weakest kept entry sits at the head
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(Math.max(1, keep), RANKING.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (best.size() < keep) {
+                best.add(entry);
+            } else if (RANKING.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+
+        List<ProductDto> page = new ArrayList<>(keep - (int) offset);
+        for (int i = (int) offset; i < ranked.size(); i++) {
+            ProductDto product = productCatalogIndex.get(ranked.get(i).getKey());
+            if (product != null) {
+                page.add(product);
+            }
+        }
+        return page;
+    }
+
+    // Anything that could not be a catalog price, like 1e999999999, is searched as text instead
+    private static BigDecimal parsePrice(String query) {
+        String trimmed = query.trim();
+        if (trimmed.length() > MAX_PRICE_LENGTH) {
+            return null;
+        }
+        try {
+            BigDecimal price = new BigDecimal(trimmed);
+            if (price.precision() - price.scale() > MAX_PRICE_DIGITS || price.scale() > MAX_PRICE_DIGITS) {
+                return null;
+            }
+            return price;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
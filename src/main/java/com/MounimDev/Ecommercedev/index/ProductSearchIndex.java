@@ -0,0 +1,354 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inverted index over product name, description, productCode, model and type.
+ *
+ * Terms live in a sorted dictionary so every query token is matched as a prefix; a product matches
+ * when all query tokens match one of its terms. Matches are scored with BM25 over field-weighted
+ * term frequencies (name and code count most, then model, then description).
+ *
+ * Postings are append-only arrays of document numbers: an updated product is re-added under a new
+ * document number and its old one is marked dead, and the index is compacted once dead documents
+ * outnumber live ones.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CODE_WEIGHT = 3;
+    private static final int MODEL_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int TYPE_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A token that only matches as the prefix of a longer term scores less than an exact term
+    private static final double PREFIX_FACTOR = 0.7;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final BitSet liveDocs = new BitSet();
+    private ProductDto[] docProducts = new ProductDto[0];
+    private int[] docLengths = new int[0];
+    private int docCount;
+    private long liveLength;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(List<ProductDto> snapshot) {
+        lock.writeLock().lock();
+        try {
+            load(snapshot);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built with {} products and {} terms", snapshot.size(), terms.size());
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            Integer oldDoc = docByProduct.remove(product.getId());
+            if (oldDoc != null) {
+                kill(oldDoc);
+            }
+            add(product);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                kill(doc);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every product matching all tokens of the query, keyed by product id.
+     */
+    public Map<Long, Double> score(String query) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return Map.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveCount = liveDocs.cardinality();
+            if (liveCount == 0) {
+                return Map.of();
+            }
+            double avgLength = Math.max(1.0, (double) liveLength / liveCount);
+
+            // Each token's prefix expansions, rarest token first: its matches bound every later step
+            List<NavigableMap<String, Postings>> expansionsByToken = new ArrayList<>(tokens.size());
+            List<Integer> postingCounts = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                NavigableMap<String, Postings> expansions = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+                int count = 0;
+                for (Postings postings : expansions.values()) {
+                    count += postings.size;
+                }
+                if (count == 0) {
+                    return Map.of();
+                }
+                expansionsByToken.add(expansions);
+                postingCounts.add(count);
+            }
+            List<Integer> order = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(postingCounts::get));
+
+            // Only documents matching the rarest token get a slot, so the work and memory follow the matches
+            DocScores scores = new DocScores(postingCounts.get(order.get(0)));
+            for (int step = 1; step <= order.size(); step++) {
+                String token = tokens.get(order.get(step - 1));
+                for (Map.Entry<String, Postings> expansion : expansionsByToken.get(order.get(step - 1)).entrySet()) {
+                    Postings postings = expansion.getValue();
+                    // Postings may still hold dead documents, so cap the document frequency
+                    double df = Math.min(postings.size, liveCount);
+                    double idf = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+                    double factor = expansion.getKey().length() == token.length() ? 1.0 : PREFIX_FACTOR;
+                    for (int i = 0; i < postings.size; i++) {
+                        int doc = postings.docs[i];
+                        if (!liveDocs.get(doc)) {
+                            continue;
+                        }
+                        int slot = step == 1 ? scores.slotFor(doc) : scores.find(doc);
+                        if (slot < 0) {
+                            continue;
+                        }
+                        double tf = postings.frequencies[i];
+                        double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                        scores.offer(slot, step, factor * idf * tf * (K1 + 1) / (tf + norm));
+                    }
+                }
+                if (scores.endStep(step) == 0) {
+                    return Map.of();
+                }
+            }
+
+            Map<Long, Double> results = new HashMap<>();
+            scores.forEachMatch(order.size(), (doc, total) -> results.put(docProducts[doc].getId(), total));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Maintenance (write lock held) ---
+
+    private void load(List<ProductDto> products) {
+        terms.clear();
+        docByProduct.clear();
+        liveDocs.clear();
+        int capacity = Math.max(16, products.size());
+        docProducts = new ProductDto[capacity];
+        docLengths = new int[capacity];
+        docCount = 0;
+        liveLength = 0;
+        for (ProductDto product : products) {
+            add(product);
+        }
+    }
+
+    private void add(ProductDto product) {
+        if (docCount == docProducts.length) {
+            docProducts = Arrays.copyOf(docProducts, docProducts.length * 2);
+            docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+        }
+        int doc = docCount++;
+        docProducts[doc] = product;
+        docByProduct.put(product.getId(), doc);
+        liveDocs.set(doc);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> term : weightedTermsOf(product).entrySet()) {
+            terms.computeIfAbsent(term.getKey(), t -> new Postings()).add(doc, term.getValue());
+            length += term.getValue();
+        }
+        docLengths[doc] = length;
+        liveLength += length;
+    }
+
+    private void kill(int doc) {
+        liveDocs.clear(doc);
+        liveLength -= docLengths[doc];
+        docProducts[doc] = null;
+    }
+
+    private void compactIfSparse() {
+        int live = liveDocs.cardinality();
+        if (docCount > 1024 && live < docCount / 2) {
+            List<ProductDto> products = new ArrayList<>(live);
+            for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+                products.add(docProducts[doc]);
+            }
+            load(products);
+        }
+    }
+
+    private static Map<String, Integer> weightedTermsOf(ProductDto product) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTokens(terms, product.getName(), NAME_WEIGHT);
+        addTokens(terms, product.getProductCode(), CODE_WEIGHT);
+        addTokens(terms, product.getModel(), MODEL_WEIGHT);
+        addTokens(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getType() != null) {
+            terms.merge(TextNormalizer.normalize(product.getType().name()), TYPE_WEIGHT, Integer::sum);
+        }
+        addCompact(terms, product.getProductCode(), CODE_WEIGHT);
+        addCompact(terms, product.getModel(), MODEL_WEIGHT);
+        return terms;
+    }
+
+    private static void addTokens(Map<String, Integer> terms, String text, int weight) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Codes and models are also indexed without separators, once
+    private static void addCompact(Map<String, Integer> terms, String value, int weight) {
+        String compact = TextNormalizer.compact(value);
+        if (!compact.isEmpty()) {
+            terms.putIfAbsent(compact, weight);
+        }
+    }
+
+    /**
+     * Per-query scores in an open-addressing table keyed by document number. A document's step is
+     * the number of query tokens it has matched so far; documents that miss a token fall behind and
+     * are skipped from then on, so nothing is ever removed.
+     */
+    private static final class DocScores {
+        private final int[] docs;
+        private final int[] steps;
+        private final double[] best;
+        private final double[] totals;
+        private final int mask;
+
+        // Sized for the given number of documents at most half full, so it never needs to grow
+        DocScores(int maxDocs) {
+            int capacity = Integer.highestOneBit(Math.max(16, maxDocs * 2 - 1)) << 1;
+            docs = new int[capacity];
+            Arrays.fill(docs, -1);
+            steps = new int[capacity];
+            best = new double[capacity];
+            totals = new double[capacity];
+            mask = capacity - 1;
+        }
+
+        int find(int doc) {
+            for (int slot = hash(doc); ; slot = (slot + 1) & mask) {
+                if (docs[slot] == doc) {
+                    return slot;
+                }
+                if (docs[slot] < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        int slotFor(int doc) {
+            int slot = hash(doc);
+            while (docs[slot] != doc && docs[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            docs[slot] = doc;
+            return slot;
+        }
+
+        // Keeps the best score among the token's expansions for a document still matching every token
+        void offer(int slot, int step, double score) {
+            if (steps[slot] == step - 1) {
+                steps[slot] = step;
+                best[slot] = score;
+            } else if (steps[slot] == step && score > best[slot]) {
+                best[slot] = score;
+            }
+        }
+
+        // Adds the token's best score to every document that matched it; returns how many did
+        int endStep(int step) {
+            int matched = 0;
+            for (int slot = 0; slot < docs.length; slot++) {
+                if (docs[slot] >= 0 && steps[slot] == step) {
+                    totals[slot] += best[slot];
+                    matched++;
+                }
+            }
+            return matched;
+        }
+
+        void forEachMatch(int step, DocScoreConsumer consumer) {
+            for (int slot = 0; slot < docs.length; slot++) {
+                if (docs[slot] >= 0 && steps[slot] == step) {
+                    consumer.accept(docs[slot], totals[slot]);
+                }
+            }
+        }
+
+        private int hash(int doc) {
+            return (doc * 0x9E3779B9) >>> 7 & mask;
+        }
+    }
+
+    @FunctionalInterface
+    private interface DocScoreConsumer {
+        void accept(int doc, double total);
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Attribute index built from each product's specifications map.
+ *
+ * Maps (key, normalized value) to product ids so that "ram=16GB" or "ram:16 gb" resolves exactly,
+ * and maps every value (whole and per word) to product ids for plain terms such as "16GB".
+ * Keys and values are folded and stripped of separators, so only real attribute data can match,
+ * never key names or JSON punctuation. Nested objects are flattened to dotted keys and list
+ * elements are indexed individually.
+ */
+@Component
+@Slf4j
+public class ProductSpecIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final Map<String, Map<String, Set<Long>>> byKeyAndValue = new HashMap<>();
+    private final Map<String, Set<Long>> byValueTerm = new HashMap<>();
+    private final Map<Long, List<Attribute>> attributesByProduct = new HashMap<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(List<ProductDto> snapshot) {
+        lock.writeLock().lock();
+        try {
+            byKeyAndValue.clear();
+            byValueTerm.clear();
+            attributesByProduct.clear();
+            for (ProductDto product : snapshot) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Specification index built with {} attribute keys", byKeyAndValue.size());
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            removeAttributes(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeAttributes(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the products whose specifications match the query, in ascending id order.
+     * "key=value" (or "key:value") matches one attribute exactly; anything else is matched against values.
+     */
+    public long[] search(String query) {
+        if (query == null || query.isBlank()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            int separator = indexOfSeparator(query);
+            Set<Long> matches;
+            if (separator > 0) {
+                String key = TextNormalizer.compact(query.substring(0, separator));
+                String value = TextNormalizer.compact(query.substring(separator + 1));
+                matches = byKeyAndValue.getOrDefault(key, Map.of()).getOrDefault(value, Set.of());
+            } else {
+                matches = matchValue(query);
+            }
+            return matches.stream().mapToLong(Long::longValue).sorted().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The whole value ("16 GB" -> "16gb"), or every word of it
+    private Set<Long> matchValue(String query) {
+        Set<Long> matches = new HashSet<>(byValueTerm.getOrDefault(TextNormalizer.compact(query), Set.of()));
+
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.size() > 1) {
+            Set<Long> all = null;
+            for (String token : tokens) {
+                Set<Long> tokenMatches = byValueTerm.getOrDefault(token, Set.of());
+                if (all == null) {
+                    all = new HashSet<>(tokenMatches);
+                } else {
+                    all.retainAll(tokenMatches);
+                }
+            }
+            matches.addAll(all);
+        }
+        return matches;
+    }
+
+    private static int indexOfSeparator(String query) {
+        int equals = query.indexOf('=');
+        return equals >= 0 ? equals : query.indexOf(':');
+    }
+
+    // --- Maintenance (write lock held) ---
+
+    private void add(ProductDto product) {
+        if (product.getSpecifications() == null) {
+            return;
+        }
+        Map<String, Object> specifications = product.getSpecifications().asMap();
+        if (specifications.isEmpty()) {
+            return;
+        }
+
+        List<Attribute> attributes = new ArrayList<>();
+        flatten("", specifications, attributes);
+        if (attributes.isEmpty()) {
+            return;
+        }
+
+        Long productId = product.getId();
+        for (Attribute attribute : attributes) {
+            byKeyAndValue.computeIfAbsent(attribute.key(), k -> new HashMap<>())
+                    .computeIfAbsent(attribute.value(), v -> new HashSet<>())
+                    .add(productId);
+            for (String term : attribute.terms()) {
+                byValueTerm.computeIfAbsent(term, t -> new HashSet<>()).add(productId);
+            }
+        }
+        attributesByProduct.put(productId, attributes);
+    }
+
+    private void removeAttributes(Long productId) {
+        List<Attribute> attributes = attributesByProduct.remove(productId);
+        if (attributes == null) {
+            return;
+        }
+        for (Attribute attribute : attributes) {
+            Map<String, Set<Long>> values = byKeyAndValue.get(attribute.key());
+            if (values != null) {
+                removeFrom(values, attribute.value(), productId);
+                if (values.isEmpty()) {
+                    byKeyAndValue.remove(attribute.key());
+                }
+            }
+            for (String term : attribute.terms()) {
+                removeFrom(byValueTerm, term, productId);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> postings, String term, Long productId) {
+        Set<Long> ids = postings.get(term);
+        if (ids != null) {
+            ids.remove(productId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static void flatten(String prefix, Object value, List<Attribute> out) {
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = prefix.isEmpty() ? String.valueOf(entry.getKey()) : prefix + "." + entry.getKey();
+                flatten(key, entry.getValue(), out);
+            }
+        } else if (value instanceof Collection<?> values) {
+            for (Object element : values) {
+                flatten(prefix, element, out);
+            }
+        } else if (value != null && !prefix.isEmpty()) {
+            String raw = String.valueOf(value);
+            String normalized = TextNormalizer.compact(raw);
+            if (!normalized.isEmpty()) {
+                Set<String> terms = new LinkedHashSet<>(TextNormalizer.tokenize(raw));
+                terms.add(normalized);
+                out.add(new Attribute(TextNormalizer.compact(prefix), normalized, List.copyOf(terms)));
+            }
+        }
+    }
+
+    private record Attribute(String key, String value, List<String> terms) {
+    }
+}
@@ -0,0 +1,480 @@
+package com.MounimDev.Ecommercedev.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.SuggestionDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Path-compressed prefix trie for typeahead over product names, codes and models.
+ *
+ * Keys are single tokens (each word of the name, code and model, plus the code and model without
+ * separators), so the trie holds one path per distinct token and a product only adds its own
+ * tokens. Chains of single-child nodes are collapsed into one edge.
+ *
+ * Nodes whose subtree holds many keys cache the best completions of that subtree, ranked by
+ * popularity (units sold); smaller subtrees are ranked on lookup, which stays cheap because they
+ * are small. A query with several words walks each one as a prefix, takes the products under the
+ * rarest and keeps those matching every other word.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 40;
+    // Subtrees with more keys than this keep a cached top list
+    private static final int CACHE_MIN_SIZE = 32;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private Node root = new Node(new char[0]);
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(List<ProductDto> snapshot, Map<Long, Long> unitsSold) {
+        lock.writeLock().lock();
+        try {
+            root = new Node(new char[0]);
+            entries.clear();
+            for (ProductDto product : snapshot) {
+                Entry entry = new Entry(product, unitsSold.getOrDefault(product.getId(), 0L));
+                entries.put(entry.productId, entry);
+                for (String key : entry.keys) {
+                    insert(key, entry);
+                }
+            }
+            refreshAll(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index built with {} products", snapshot.size());
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(product.getId());
+            long weight = old != null ? old.weight : 0;
+            if (old != null) {
+                detach(old);
+            }
+            Entry entry = new Entry(product, weight);
+            entries.put(entry.productId, entry);
+            for (String key : entry.keys) {
+                refresh(insert(key, entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(productId);
+            if (old != null) {
+                detach(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Units sold go up with orders and down with cancellations and returns, never below zero
+    public void adjustSales(Long productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(productId);
+            if (entry == null || delta == 0) {
+                return;
+            }
+            entry.weight = Math.max(0, entry.weight + delta);
+            for (String key : entry.keys) {
+                refresh(pathTo(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(prefix)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int count = Math.min(limit, MAX_SUGGESTIONS);
+
+        lock.readLock().lock();
+        try {
+            // The rarest word bounds the candidates; the others only filter them
+            Node rarest = null;
+            for (String token : tokens) {
+                Node node = find(truncate(token));
+                if (node == null) {
+                    return List.of();
+                }
+                if (rarest == null || node.size < rarest.size) {
+                    rarest = node;
+                }
+            }
+
+            List<Entry> ranked;
+            if (tokens.size() == 1 && rarest.top != null) {
+                ranked = Arrays.asList(rarest.top);
+            } else {
+                List<Entry> candidates = new ArrayList<>(rarest.size);
+                collect(rarest, candidates);
+                candidates.removeIf(entry -> !entry.matchesAll(tokens));
+                ranked = best(candidates, count);
+            }
+
+            List<SuggestionDto> suggestions = new ArrayList<>(Math.min(count, ranked.size()));
+            for (int i = 0; i < count && i < ranked.size(); i++) {
+                Entry entry = ranked.get(i);
+                suggestions.add(new SuggestionDto(entry.productId, entry.name, entry.productCode, entry.model, entry.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Trie maintenance (write lock held) ---
+
+    private void detach(Entry entry) {
+        for (String key : entry.keys) {
+            List<Node> path = pathTo(key);
+            Node node = path.get(path.size() - 1);
+            if (!reaches(path, key) || !node.removeTerminal(entry)) {
+                continue;
+            }
+            for (Node onPath : path) {
+                onPath.size--;
+            }
+            prune(path);
+            refresh(path);
+        }
+    }
+
+    // Adds the key and returns the nodes from the root down to the key's node
+    private List<Node> insert(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int at = 0;
+        while (true) {
+            node.size++;
+            path.add(node);
+            if (at == key.length()) {
+                node.addTerminal(entry);
+                return path;
+            }
+            int index = node.childIndex(key.charAt(at));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(at).toCharArray());
+                leaf.addTerminal(entry);
+                leaf.size = 1;
+                node.addChild(leaf);
+                path.add(leaf);
+                return path;
+            }
+            Node child = node.children[index];
+            int common = commonLength(child.edge, key, at);
+            if (common < child.edge.length) {
+                // The key leaves the edge part way: split it at that point
+                Node middle = new Node(Arrays.copyOf(child.edge, common));
+                child.edge = Arrays.copyOfRange(child.edge, common, child.edge.length);
+                middle.children = new Node[] { child };
+                middle.size = child.size;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            at += common;
+        }
+    }
+
+    // Nodes from the root down as far as the key leads; the last one is the key's node when it exists
+    private List<Node> pathTo(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int at = 0;
+        path.add(node);
+        while (at < key.length()) {
+            int index = node.childIndex(key.charAt(at));
+            if (index < 0) {
+                break;
+            }
+            Node child = node.children[index];
+            if (commonLength(child.edge, key, at) < child.edge.length) {
+                break;
+            }
+            node = child;
+            at += child.edge.length;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static boolean reaches(List<Node> path, String key) {
+        int length = 0;
+        for (Node node : path) {
+            length += node.edge.length;
+        }
+        return length == key.length();
+    }
+
+    // The node whose subtree holds every key starting with the prefix, or null
+    private Node find(String prefix) {
+        Node node = root;
+        int at = 0;
+        while (at < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(at));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonLength(child.edge, prefix, at);
+            if (at + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.edge.length) {
+                return null;
+            }
+            node = child;
+            at += common;
+        }
+        return node;
+    }
+
+    // Drops emptied nodes and merges a node left with one child and no keys into that child
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.terminals.length == 0 && node.children.length == 0) {
+                parent.removeChild(node);
+            } else if (node.terminals.length == 0 && node.children.length == 1) {
+                Node only = node.children[0];
+                char[] edge = Arrays.copyOf(node.edge, node.edge.length + only.edge.length);
+                System.arraycopy(only.edge, 0, edge, node.edge.length, only.edge.length);
+                only.edge = edge;
+                parent.children[parent.childIndex(edge[0])] = only;
+                path.set(i, only);
+            }
+        }
+    }
+
+    // Recomputes cached completions from the end of the path back up to the root
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).refresh();
+        }
+    }
+
+    private void refreshAll(Node node) {
+        for (Node child : node.children) {
+            refreshAll(child);
+        }
+        node.refresh();
+    }
+
+    private static void collect(Node node, List<Entry> into) {
+        into.addAll(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            collect(child, into);
+        }
+    }
+
+    // Best distinct products, at most limit of them
+    private static List<Entry> best(List<Entry> candidates, int limit) {
+        candidates.sort(Entry::compare);
+        List<Entry> best = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (Entry candidate : candidates) {
+            if (seen.add(candidate.productId)) {
+                best.add(candidate);
+                if (best.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int commonLength(char[] edge, String key, int from) {
+        int length = 0;
+        while (length < edge.length && from + length < key.length() && edge[length] == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static final class Entry {
+        private final long productId;
+        private final String name;
+        private final String productCode;
+        private final String model;
+        private final String[] keys;
+        private long weight;
+
+        Entry(ProductDto product, long weight) {
+            this.productId = product.getId();
+            this.name = product.getName();
+            this.productCode = product.getProductCode();
+            this.model = product.getModel();
+            this.weight = weight;
+            this.keys = keysOf(product);
+        }
+
+        // Each word of the name, code and model, and the code and model without separators
+        private static String[] keysOf(ProductDto product) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String text : new String[] { product.getName(), product.getProductCode(), product.getModel() }) {
+                for (String token : TextNormalizer.tokenize(text)) {
+                    keys.add(truncate(token));
+                }
+            }
+            for (String text : new String[] { product.getProductCode(), product.getModel() }) {
+                String compact = TextNormalizer.compact(text);
+                if (!compact.isEmpty()) {
+                    keys.add(truncate(compact));
+                }
+            }
+            return keys.toArray(new String[0]);
+        }
+
+        boolean matchesAll(List<String> tokens) {
+            for (String token : tokens) {
+                String prefix = truncate(token);
+                boolean matched = false;
+                for (String key : keys) {
+                    if (key.startsWith(prefix)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static int compare(Entry a, Entry b) {
+            int byWeight = Long.compare(b.weight, a.weight);
+            if (byWeight != 0) {
+                return byWeight;
+            }
+            int byName = String.valueOf(a.name).compareTo(String.valueOf(b.name));
+            return byName != 0 ? byName : Long.compare(a.productId, b.productId);
+        }
+    }
+
+    private static final class Node {
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // Label of the edge leading into this node; children are sorted by their first character
+        private char[] edge;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        // Keys in this subtree, counting a product once per key
+        private int size;
+        private Entry[] top;
+
+        Node(char[] edge) {
+            this.edge = edge;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].edge[0];
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addChild(Node child) {
+            int insertAt = -childIndex(child.edge[0]) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        void removeChild(Node child) {
+            int index = childIndex(child.edge[0]);
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        void addTerminal(Entry entry) {
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = entry;
+        }
+
+        boolean removeTerminal(Entry entry) {
+            for (int i = 0; i < terminals.length; i++) {
+                if (terminals[i] == entry) {
+                    Entry[] shrunk = new Entry[terminals.length - 1];
+                    System.arraycopy(terminals, 0, shrunk, 0, i);
+                    System.arraycopy(terminals, i + 1, shrunk, i, terminals.length - i - 1);
+                    terminals = shrunk.length == 0 ? NO_ENTRIES : shrunk;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Small subtrees are ranked on lookup; large ones merge their own keys with the children's lists
+        void refresh() {
+            if (size <= CACHE_MIN_SIZE) {
+                top = null;
+                return;
+            }
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(terminals));
+            for (Node child : children) {
+                if (child.top != null) {
+                    candidates.addAll(Arrays.asList(child.top));
+                } else {
+                    collect(child, candidates);
+                }
+            }
+            top = best(candidates, MAX_SUGGESTIONS).toArray(NO_ENTRIES);
+        }
+    }
+}
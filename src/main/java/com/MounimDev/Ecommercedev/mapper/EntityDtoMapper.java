@@ -1,5 +1,6 @@
 package com.MounimDev.Ecommercedev.mapper;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -8,12 +9,16 @@ import com.MounimDev.Ecommercedev.dto.AddressDto;
 import com.MounimDev.Ecommercedev.dto.CategoryDto;
 import com.MounimDev.Ecommercedev.dto.OrderItemDto;
 import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
 import com.MounimDev.Ecommercedev.dto.UserDto;
 import com.MounimDev.Ecommercedev.entity.Address;
+import com.MounimDev.Ecommercedev.entity.BaseOrderItem;
 import com.MounimDev.Ecommercedev.entity.Category;
 import com.MounimDev.Ecommercedev.entity.OrderItem;
 import com.MounimDev.Ecommercedev.entity.Product;
 import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 
 @Component
 public class EntityDtoMapper {
@@ -86,9 +91,7 @@ public class EntityDtoMapper {
 		productDto.setPurchasable(product.isPurchasable());
 		productDto.setType(product.getType());
 		
-		if(product.getSpecifications() != null) {
-            productDto.setSpecifications(product.getSpecificationsMap());
-        }
+		productDto.setSpecifications(product.getSpecifications());
 		productDto.setModel(product.getModel());
 		 if(product.getCategory() != null) {
 		        productDto.setCategoryId(product.getCategory().getId());
@@ -104,6 +107,55 @@ public class EntityDtoMapper {
 	
 	
 	
+	//product projection to Dto, requested fields only
+	
+	public ProductDto mapProductSummaryToDto(ProductSummary product, Set<ProductField> fields) {
+		
+		ProductDto productDto = new ProductDto();
+		if (fields.contains(ProductField.ID)) productDto.setId(product.id());
+		if (fields.contains(ProductField.PRODUCT_CODE)) productDto.setProductCode(product.productCode());
+		if (fields.contains(ProductField.NAME)) productDto.setName(product.name());
+		if (fields.contains(ProductField.TYPE)) productDto.setType(product.type());
+		if (fields.contains(ProductField.PRICE)) productDto.setPrice(product.price());
+		if (fields.contains(ProductField.PURCHASABLE)) productDto.setPurchasable(product.purchasable());
+		if (fields.contains(ProductField.IMAGE_URL)) productDto.setImageUrl(product.imageUrl());
+		if (fields.contains(ProductField.MODEL)) productDto.setModel(product.model());
+		if (fields.contains(ProductField.CATEGORY_ID)) productDto.setCategoryId(product.categoryId());
+		if (fields.contains(ProductField.CREATED_AT)) productDto.setCreatedAt(product.createdAt());
+		if (fields.contains(ProductField.DESCRIPTION)) productDto.setDescription(product.description());
+		if (fields.contains(ProductField.SPECIFICATIONS)) productDto.setSpecifications(product.specifications());
+		
+		return productDto;
+	}
+	
+	
+	
+	//copy of an in-memory product Dto with requested fields only (the source is shared, never modified)
+	
+	public ProductDto mapProductDtoFields(ProductDto product, Set<ProductField> fields) {
+		if (fields.containsAll(ProductField.ALL)) {
+			return product;
+		}
+		
+		ProductDto productDto = new ProductDto();
+		if (fields.contains(ProductField.ID)) productDto.setId(product.getId());
+		if (fields.contains(ProductField.PRODUCT_CODE)) productDto.setProductCode(product.getProductCode());
+		if (fields.contains(ProductField.NAME)) productDto.setName(product.getName());
+		if (fields.contains(ProductField.TYPE)) productDto.setType(product.getType());
+		if (fields.contains(ProductField.PRICE)) productDto.setPrice(product.getPrice());
+		if (fields.contains(ProductField.PURCHASABLE)) productDto.setPurchasable(product.getPurchasable());
+		if (fields.contains(ProductField.IMAGE_URL)) productDto.setImageUrl(product.getImageUrl());
+		if (fields.contains(ProductField.MODEL)) productDto.setModel(product.getModel());
+		if (fields.contains(ProductField.CATEGORY_ID)) productDto.setCategoryId(product.getCategoryId());
+		if (fields.contains(ProductField.CREATED_AT)) productDto.setCreatedAt(product.getCreatedAt());
+		if (fields.contains(ProductField.DESCRIPTION)) productDto.setDescription(product.getDescription());
+		if (fields.contains(ProductField.SPECIFICATIONS)) productDto.setSpecifications(product.getSpecifications());
+		
+		return productDto;
+	}
+	
+	
+	
 	public UserDto mapUserToDtoPlusAddress(User user) {
 		UserDto userDto = mapUserToDtoBasic(user);
 		
@@ -145,6 +197,26 @@ public class EntityDtoMapper {
 		return orderItemDto;
 	}
 
+	//OrderItem to DTO, live or archived, requested fields only: product and user are only touched when asked for
+	
+	public OrderItemDto mapOrderItemToDto(BaseOrderItem orderItem, Set<OrderItemField> fields) {
+		OrderItemDto orderItemDto = new OrderItemDto();
+		if (fields.contains(OrderItemField.ID)) orderItemDto.setId(orderItem.getId());
+		if (fields.contains(OrderItemField.QUANTITY)) orderItemDto.setQuantity(orderItem.getQuantity());
+		if (fields.contains(OrderItemField.PRICE)) orderItemDto.setPrice(orderItem.getPrice());
+		if (fields.contains(OrderItemField.STATUS)) orderItemDto.setStatus(orderItem.getStatus().name());
+		if (fields.contains(OrderItemField.CREATED_AT)) orderItemDto.setCreatedAt(orderItem.getCreatedAt());
+		
+		if(fields.contains(OrderItemField.PRODUCT) && orderItem.getProduct() != null) {
+			orderItemDto.setProduct(mapProductToDtobasic(orderItem.getProduct()));
+		}
+		if(fields.contains(OrderItemField.USER) && orderItem.getUser() != null) {
+			orderItemDto.setUser(mapUserToDtoPlusAddress(orderItem.getUser()));
+		}
+		
+		return orderItemDto;
+	}
+
 	//user to DTO with Address and Order Items History
 	
 	public UserDto mapUserToDtoPlusAddressAndOrderHistory(User user) {
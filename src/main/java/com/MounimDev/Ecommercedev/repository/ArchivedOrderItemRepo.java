@@ -0,0 +1,39 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.MounimDev.Ecommercedev.entity.ArchivedOrderItem;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+public interface ArchivedOrderItemRepo extends JpaRepository<ArchivedOrderItem, Long>, JpaSpecificationExecutor<ArchivedOrderItem> {
+
+	@Override
+	@EntityGraph(attributePaths = {"product", "user", "user.address"})
+	Page<ArchivedOrderItem> findAll(Specification<ArchivedOrderItem> spec, Pageable pageable);
+
+	@Query("SELECT COUNT(a) > 0 FROM ArchivedOrderItem a WHERE a.product.id = :productId")
+	boolean existsByProductId(@Param("productId") Long productId);
+
+	// [productId, total quantity], like OrderItemRepo.sumQuantityByProduct
+	@Query("SELECT a.product.id, SUM(a.quantity) FROM ArchivedOrderItem a WHERE a.status NOT IN :excluded GROUP BY a.product.id")
+	List<Object[]> sumQuantityByProduct(@Param("excluded") Collection<OrderStatus> excluded);
+
+	// A user's archived items and their products in one select, for the order history
+	@EntityGraph(attributePaths = {"product"})
+	List<ArchivedOrderItem> findByUserIdOrderByIdDesc(Long userId);
+
+	// Newest creation time in the archive, null when it is empty
+	@Query("SELECT MAX(a.createdAt) FROM ArchivedOrderItem a")
+	LocalDateTime findLatestCreatedAt();
+}
@@ -0,0 +1,10 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.MounimDev.Ecommercedev.entity.CartItem;
+import com.MounimDev.Ecommercedev.entity.CartItemId;
+
+public interface CartItemRepo extends JpaRepository<CartItem, CartItemId> {
+
+}
@@ -0,0 +1,9 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.MounimDev.Ecommercedev.entity.Inventory;
+
+public interface InventoryRepo extends JpaRepository<Inventory, Long> {
+
+}
@@ -1,15 +1,43 @@
 package com.MounimDev.Ecommercedev.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+public interface OrderItemRepo extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem>, OrderItemRepoCustom {
 
-public interface OrderItemRepo extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem> {
+	// Admin filter: product, user and address come with the page instead of one select per row
+	@Override
+	@EntityGraph(attributePaths = {"product", "user", "user.address"})
+	Page<OrderItem> findAll(Specification<OrderItem> spec, Pageable pageable);
 
 	
 	@Query("SELECT COUNT(oi) > 0 FROM OrderItem oi WHERE oi.product.id = :productId")
     boolean existsByProductId(@Param("productId") Long productId);
+
+	// [productId, total quantity] for every product that has been ordered, leaving out items in the excluded statuses
+	@Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.status NOT IN :excluded GROUP BY oi.product.id")
+	List<Object[]> sumQuantityByProduct(@Param("excluded") Collection<OrderStatus> excluded);
+
+	// Only rows still in the expected status change, so a concurrent update is never overwritten
+	@Modifying
+	@Query("UPDATE OrderItem oi SET oi.status = :next, oi.version = oi.version + 1 WHERE oi.id IN :ids AND oi.status = :previous")
+	int updateStatus(@Param("ids") Collection<Long> ids, @Param("previous") OrderStatus previous,
+			@Param("next") OrderStatus next);
+
+	// Locks the given rows that are still in the status (its ordinal, as stored) until the transaction ends
+	@Query(value = "SELECT id FROM order_items WHERE id IN (:ids) AND status = :status FOR UPDATE", nativeQuery = true)
+	List<Long> lockIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") int status);
 }
@@ -0,0 +1,14 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusRow;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+
+public interface OrderItemRepoCustom {
+
+	// Id, status, product, quantity, price and creation time of the matching items, at most limit rows in id order
+	List<OrderItemStatusRow> findStatusRows(Specification<OrderItem> spec, int limit);
+}
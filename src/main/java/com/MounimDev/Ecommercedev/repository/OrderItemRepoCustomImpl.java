@@ -0,0 +1,48 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusRow;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class OrderItemRepoCustomImpl implements OrderItemRepoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<OrderItemStatusRow> findStatusRows(Specification<OrderItem> spec, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<OrderItem> root = query.from(OrderItem.class);
+
+		// product.id is read from the foreign key column, no join
+		query.multiselect(root.get("id").alias("id"), root.get("status").alias("status"),
+				root.get("product").get("id").alias("productId"), root.get("quantity").alias("quantity"),
+				root.get("price").alias("price"), root.get("createdAt").alias("createdAt"));
+		Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(cb.asc(root.get("id")));
+
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+				.map(row -> new OrderItemStatusRow(row.get("id", Long.class), row.get("status", OrderStatus.class),
+						row.get("productId", Long.class), row.get("quantity", Integer.class),
+						row.get("price", BigDecimal.class), row.get("createdAt", LocalDateTime.class)))
+				.toList();
+	}
+}
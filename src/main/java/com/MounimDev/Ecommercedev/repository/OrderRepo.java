@@ -6,4 +6,5 @@ import com.MounimDev.Ecommercedev.entity.Order;
 
 public interface OrderRepo extends JpaRepository<Order, Long> {
 
+	boolean existsByReference(String reference);
 }
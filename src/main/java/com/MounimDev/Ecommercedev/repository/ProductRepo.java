@@ -4,16 +4,18 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.MounimDev.Ecommercedev.entity.Product;
 import com.MounimDev.Ecommercedev.enums.ProductType;
 
-public interface ProductRepo extends JpaRepository<Product, Long> {
+public interface ProductRepo extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepoCustom {
 	
 	
 	@Query("SELECT p FROM Product p")
@@ -21,6 +23,10 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
 	
 	
     List<Product> findByCategoryId(Long categoryId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
     List<Product> findByNameContainingOrDescriptionContaining(String name, String description);
     List<Product> findByType(ProductType type);
     
@@ -82,6 +88,24 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
     	       countQuery = "SELECT count(*) FROM products WHERE specifications LIKE CONCAT('%', :query, '%')",
     	       nativeQuery = true)
     	Page<Product> searchInSpecifications(@Param("query") String query, Pageable pageable);
+
+    // The text and specifications searches as one OR'ed select, so a page and its total come from the same rows
+    @Query(value = "SELECT * FROM products WHERE " +
+            "LOWER(name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(product_code) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(model) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(type) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "specifications LIKE CONCAT('%', :query, '%') ORDER BY id",
+           countQuery = "SELECT count(*) FROM products WHERE " +
+            "LOWER(name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(product_code) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(model) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(type) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "specifications LIKE CONCAT('%', :query, '%')",
+           nativeQuery = true)
+    Page<Product> searchTextAndSpecifications(@Param("query") String query, Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.purchasable = :purchasable AND " +
     	       "p.price BETWEEN :minPrice AND :maxPrice")
@@ -109,4 +133,7 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
     	    Pageable pageable);
     
     Optional<Product> findByProductCode(String productCode);
+    
+    // Keyset chunks used to load the in-memory catalog indexes
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductField;
+
+public interface ProductRepoCustom {
+
+	// Column projections for list views: only the given columns are selected, the rest stay null
+	Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable, Set<ProductField> columns);
+
+	List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit, Set<ProductField> columns);
+}
@@ -0,0 +1,117 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.entity.ProductSpecifications;
+import com.MounimDev.Ecommercedev.enums.ProductField;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class ProductRepoCustomImpl implements ProductRepoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable, Set<ProductField> columns) {
+		TypedQuery<Tuple> query = summaryQuery(spec, pageable.getSort(), columns);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			query.setMaxResults(pageable.getPageSize());
+		}
+		List<ProductSummary> rows = query.getResultList().stream().map(row -> toSummary(row, columns)).toList();
+		// The count only runs when the page alone cannot tell the total
+		return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+	}
+
+	@Override
+	public List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit, Set<ProductField> columns) {
+		return summaryQuery(spec, sort, columns).setMaxResults(limit).getResultList().stream()
+				.map(row -> toSummary(row, columns))
+				.toList();
+	}
+
+	private TypedQuery<Tuple> summaryQuery(Specification<Product> spec, Sort sort, Set<ProductField> columns) {
+		if (columns.isEmpty()) {
+			throw new IllegalArgumentException("At least one product field must be selected");
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Product> root = query.from(Product.class);
+
+		query.multiselect(columns.stream()
+				.map(column -> (Selection<?>) path(root, column.attribute()).alias(column.name()))
+				.toList());
+
+		Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		if (sort.isSorted()) {
+			query.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		return entityManager.createQuery(query);
+	}
+
+	private static Path<?> path(Root<Product> root, String attribute) {
+		Path<?> path = root;
+		for (String part : attribute.split("\\.")) {
+			path = path.get(part);
+		}
+		return path;
+	}
+
+	private static ProductSummary toSummary(Tuple row, Set<ProductField> columns) {
+		return new ProductSummary(
+				column(row, columns, ProductField.ID, Long.class),
+				column(row, columns, ProductField.PRODUCT_CODE, String.class),
+				column(row, columns, ProductField.NAME, String.class),
+				column(row, columns, ProductField.TYPE, ProductType.class),
+				column(row, columns, ProductField.PRICE, BigDecimal.class),
+				column(row, columns, ProductField.PURCHASABLE, Boolean.class),
+				column(row, columns, ProductField.IMAGE_URL, String.class),
+				column(row, columns, ProductField.MODEL, String.class),
+				column(row, columns, ProductField.CATEGORY_ID, Long.class),
+				column(row, columns, ProductField.CREATED_AT, LocalDateTime.class),
+				column(row, columns, ProductField.DESCRIPTION, String.class),
+				column(row, columns, ProductField.SPECIFICATIONS, ProductSpecifications.class));
+	}
+
+	private static <T> T column(Tuple row, Set<ProductField> columns, ProductField field, Class<T> type) {
+		return columns.contains(field) ? row.get(field.name(), type) : null;
+	}
+
+	private long count(Specification<Product> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Product> root = query.from(Product.class);
+		query.select(cb.count(root));
+		Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		return entityManager.createQuery(query).getSingleResult();
+	}
+}
@@ -0,0 +1,37 @@
+package com.MounimDev.Ecommercedev.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.MounimDev.Ecommercedev.entity.SalesRollup;
+import com.MounimDev.Ecommercedev.entity.SalesRollupId;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.enums.RollupDimension;
+
+// Each query returns [group, SUM(quantity), SUM(revenue)]; a null status means every status
+public interface SalesRollupRepo extends JpaRepository<SalesRollup, SalesRollupId> {
+
+	@Query("SELECT r.id.saleDate, SUM(r.quantity), SUM(r.revenue) FROM SalesRollup r "
+			+ "WHERE r.id.dimension = com.MounimDev.Ecommercedev.enums.RollupDimension.TOTAL "
+			+ "AND r.id.saleDate BETWEEN :from AND :to AND (:status IS NULL OR r.id.status = :status) "
+			+ "GROUP BY r.id.saleDate ORDER BY r.id.saleDate")
+	List<Object[]> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("status") OrderStatus status);
+
+	@Query("SELECT r.id.status, SUM(r.quantity), SUM(r.revenue) FROM SalesRollup r "
+			+ "WHERE r.id.dimension = com.MounimDev.Ecommercedev.enums.RollupDimension.TOTAL "
+			+ "AND r.id.saleDate BETWEEN :from AND :to AND (:status IS NULL OR r.id.status = :status) "
+			+ "GROUP BY r.id.status ORDER BY r.id.status")
+	List<Object[]> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("status") OrderStatus status);
+
+	// Product or category ids, largest revenue first
+	@Query("SELECT r.id.dimensionId, SUM(r.quantity), SUM(r.revenue) FROM SalesRollup r "
+			+ "WHERE r.id.dimension = :dimension "
+			+ "AND r.id.saleDate BETWEEN :from AND :to AND (:status IS NULL OR r.id.status = :status) "
+			+ "GROUP BY r.id.dimensionId ORDER BY SUM(r.revenue) DESC")
+	List<Object[]> sumByDimensionId(@Param("dimension") RollupDimension dimension, @Param("from") LocalDate from,
+			@Param("to") LocalDate to, @Param("status") OrderStatus status);
+}
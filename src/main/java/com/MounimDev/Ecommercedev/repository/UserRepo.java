@@ -2,6 +2,7 @@ package com.MounimDev.Ecommercedev.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.MounimDev.Ecommercedev.entity.User;
@@ -9,5 +10,9 @@ import com.MounimDev.Ecommercedev.entity.User;
 public interface UserRepo extends JpaRepository<User, Long>{
 	Optional<User> findByEmail(String email);
 	User findByVerificationToken(String token);
+	
+	// Profile with address and full order history (items and their products) in one select
+	@EntityGraph(attributePaths = {"address", "orderItemList", "orderItemList.product"})
+	Optional<User> findWithOrderHistoryByEmail(String email);
 
 }
@@ -0,0 +1,69 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.dto.SalesTotalDto;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.enums.RollupDimension;
+import com.MounimDev.Ecommercedev.repository.SalesRollupRepo;
+import com.MounimDev.Ecommercedev.service.interf.AnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+// Reports are read from sales_rollups only, never from order_items
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+	private final SalesRollupRepo salesRollupRepo;
+	private final SalesRollupService salesRollupService;
+
+	@Override
+	public Response getSales(LocalDate from, LocalDate to, String groupBy, OrderStatus status) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("from must not be after to");
+		}
+		List<Object[]> rows = switch (groupBy.toLowerCase()) {
+			case "day" -> salesRollupRepo.sumByDay(from, to, status);
+			case "status" -> salesRollupRepo.sumByStatus(from, to, status);
+			case "product" -> salesRollupRepo.sumByDimensionId(RollupDimension.PRODUCT, from, to, status);
+			case "category" -> salesRollupRepo.sumByDimensionId(RollupDimension.CATEGORY, from, to, status);
+			default -> throw new IllegalArgumentException("groupBy must be one of day, status, product, category");
+		};
+		List<SalesTotalDto> totals = rows.stream()
+				.map(row -> new SalesTotalDto(row[0], ((Number) row[1]).longValue(), (BigDecimal) row[2]))
+				.toList();
+
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("from", from);
+		data.put("to", to);
+		data.put("groupBy", groupBy.toLowerCase());
+		if (status != null) {
+			data.put("status", status);
+		}
+		data.put("quantity", totals.stream().mapToLong(SalesTotalDto::quantity).sum());
+		data.put("revenue", totals.stream().map(SalesTotalDto::revenue).reduce(BigDecimal.ZERO, BigDecimal::add));
+		data.put("totals", totals);
+		return Response.builder()
+				.status(200)
+				.message("Sales retrieved")
+				.data(data)
+				.build();
+	}
+
+	@Override
+	public Response rebuildSalesRollups() {
+		salesRollupService.rebuild();
+		return Response.builder()
+				.status(200)
+				.message("Sales rollups rebuilt")
+				.build();
+	}
+}
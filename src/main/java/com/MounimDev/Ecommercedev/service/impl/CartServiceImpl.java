@@ -0,0 +1,142 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.CartDto;
+import com.MounimDev.Ecommercedev.dto.CartItemDto;
+import com.MounimDev.Ecommercedev.dto.OrderItemRequest;
+import com.MounimDev.Ecommercedev.dto.OrderRequest;
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.index.ProductCatalogIndex;
+import com.MounimDev.Ecommercedev.security.AuthUser;
+import com.MounimDev.Ecommercedev.service.interf.CartService;
+import com.MounimDev.Ecommercedev.service.interf.OrderItemService;
+import com.MounimDev.Ecommercedev.service.interf.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cart endpoints over the in-memory cart store. The user id comes from the authenticated principal
+ * and product names and prices from the catalog index, so nothing but checkout reads or writes the
+ * database on the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartServiceImpl implements CartService {
+
+	private final CartStore cartStore;
+	private final ProductCatalogIndex productCatalogIndex;
+	private final OrderItemService orderItemService;
+	private final UserService userService;
+
+	@Override
+	public Response getCart() {
+		return cartResponse(cartStore.get(currentUserId()), "Cart retrieved");
+	}
+
+	@Override
+	public Response addItem(Long productId, int quantity) {
+		checkPurchasable(productId);
+		return cartResponse(cartStore.add(currentUserId(), productId, quantity), "Item added to cart");
+	}
+
+	@Override
+	public Response setItemQuantity(Long productId, int quantity) {
+		if (quantity > 0) {
+			checkPurchasable(productId);
+		}
+		return cartResponse(cartStore.set(currentUserId(), productId, quantity), "Cart updated");
+	}
+
+	@Override
+	public Response removeItem(Long productId) {
+		return cartResponse(cartStore.set(currentUserId(), productId, 0), "Item removed from cart");
+	}
+
+	@Override
+	public Response clearCart() {
+		Long userId = currentUserId();
+		cartStore.clear(userId);
+		return cartResponse(Map.of(), "Cart cleared");
+	}
+
+	@Override
+	public Response checkout() {
+		Long userId = currentUserId();
+		// Taken out under the cart's lock, so a concurrent checkout cannot order the same lines again
+		Map<Long, Integer> lines = cartStore.takeForCheckout(userId);
+
+		OrderRequest orderRequest = new OrderRequest();
+		List<OrderItemRequest> items = new ArrayList<>(lines.size());
+		lines.forEach((productId, quantity) -> {
+			OrderItemRequest item = new OrderItemRequest();
+			item.setProductId(productId);
+			item.setQuantity(quantity);
+			items.add(item);
+		});
+		orderRequest.setItems(items);
+
+		// Prices, stock and purchasability are all checked again by placeOrder
+		Response response;
+		try {
+			response = orderItemService.placeOrder(orderRequest);
+		} catch (RuntimeException e) {
+			cartStore.restore(userId, lines);
+			throw e;
+		}
+		cartStore.checkedOut(userId);
+		return response;
+	}
+
+	// Unknown products are refused up front when the catalog index is loaded; placeOrder checks again either way
+	private void checkPurchasable(Long productId) {
+		if (!productCatalogIndex.isReady()) {
+			return;
+		}
+		ProductDto product = productCatalogIndex.get(productId);
+		if (product == null) {
+			throw new NotFoundException("Product Not Found");
+		}
+		if (!Boolean.TRUE.equals(product.getPurchasable())) {
+			throw new IllegalStateException("Product " + product.getName() + " is not available for purchase");
+		}
+	}
+
+	private Response cartResponse(Map<Long, Integer> lines, String message) {
+		List<CartItemDto> items = new ArrayList<>(lines.size());
+		int totalQuantity = 0;
+		BigDecimal estimatedTotal = BigDecimal.ZERO;
+		for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+			ProductDto product = productCatalogIndex.isReady() ? productCatalogIndex.get(line.getKey()) : null;
+			BigDecimal price = product != null ? product.getPrice() : null;
+			items.add(new CartItemDto(line.getKey(), product != null ? product.getName() : null, price, line.getValue()));
+			totalQuantity += line.getValue();
+			if (price != null) {
+				estimatedTotal = estimatedTotal.add(price.multiply(BigDecimal.valueOf(line.getValue())));
+			}
+		}
+		return Response.builder()
+				.status(200)
+				.message(message)
+				.cart(new CartDto(items, totalQuantity, estimatedTotal))
+				.build();
+	}
+
+	// The JWT filter already put the user on the principal; other authentications fall back to a lookup
+	private Long currentUserId() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof AuthUser authUser) {
+			return authUser.getUser().getId();
+		}
+		return userService.getLoginUser().getId();
+	}
+}
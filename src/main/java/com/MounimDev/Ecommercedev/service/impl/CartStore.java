@@ -0,0 +1,310 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.entity.CartItem;
+import com.MounimDev.Ecommercedev.exception.ConflictException;
+import com.MounimDev.Ecommercedev.exception.InvalidRequestException;
+import com.MounimDev.Ecommercedev.repository.CartItemRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory carts, product id -> quantity per user. Users are spread over a fixed number of shards,
+ * each with its own lock, so cart updates only contend with users on the same shard and never wait
+ * on the database. Changed users are marked dirty; a scheduled flush rewrites each dirty user's
+ * rows in cart_items once, however many clicks happened since the last flush, in one batched
+ * transaction.
+ *
+ * The store is the source of truth while the application runs, so one instance owns the cart
+ * table; the database catches up within a flush interval.
+ *
+ * Carts nobody has changed for {@code cart.idle-days} are abandoned: a daily sweep drops them from
+ * memory and, through the next flush, from the table, and startup skips and deletes them.
+ */
+@Component
+@Slf4j
+public class CartStore {
+
+    private static final int SHARDS = 64;
+
+    private final CartItemRepo cartItemRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLines;
+    private final int idleDays;
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    public CartStore(CartItemRepo cartItemRepo, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                     @Value("${cart.max-lines:100}") int maxLines, @Value("${cart.idle-days:30}") int idleDays) {
+        this.cartItemRepo = cartItemRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLines = maxLines;
+        this.idleDays = idleDays;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        // A user's rows are rewritten together, so updated_at is when the whole cart last changed
+        LocalDateTime now = LocalDateTime.now();
+        int abandoned = jdbcTemplate.update("DELETE FROM cart_items WHERE updated_at < ?", now.minusDays(idleDays));
+        int lines = 0;
+        for (CartItem cartItem : cartItemRepo.findAll()) {
+            Long userId = cartItem.getId().getUserId();
+            Shard shard = shard(userId);
+            shard.carts.computeIfAbsent(userId, id -> new LinkedHashMap<>())
+                    .put(cartItem.getId().getProductId(), cartItem.getQuantity());
+            shard.changedAt.put(userId, cartItem.getUpdatedAt() != null ? cartItem.getUpdatedAt() : now);
+            lines++;
+        }
+        log.info("Cart store loaded {} cart lines, deleted {} abandoned ones", lines, abandoned);
+    }
+
+    public Map<Long, Integer> get(Long userId) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Map<Long, Integer> cart = shard.carts.get(userId);
+            return cart != null ? new LinkedHashMap<>(cart) : new LinkedHashMap<>();
+        }
+    }
+
+    // Adds to the quantity already in the cart; returns the cart after the change
+    public Map<Long, Integer> add(Long userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Map<Long, Integer> cart = shard.carts.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+            checkRoom(cart, productId);
+            cart.merge(productId, quantity, Math::addExact);
+            changed(shard, userId);
+            return new LinkedHashMap<>(cart);
+        }
+    }
+
+    // Sets the quantity of one line, 0 removes it; returns the cart after the change
+    public Map<Long, Integer> set(Long userId, Long productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Map<Long, Integer> cart = shard.carts.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+            if (quantity == 0) {
+                cart.remove(productId);
+            } else {
+                checkRoom(cart, productId);
+                cart.put(productId, quantity);
+            }
+            dropIfEmpty(shard, userId, cart);
+            changed(shard, userId);
+            return new LinkedHashMap<>(cart);
+        }
+    }
+
+    public void clear(Long userId) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            if (shard.carts.remove(userId) != null) {
+                shard.dirty.add(userId);
+            }
+        }
+    }
+
+    /**
+     * Takes the whole cart out for checkout and marks the user as checking out, so a second
+     * checkout of the same lines is refused until this one ends. Lines added meanwhile go to a new
+     * cart. End with {@link #checkedOut} once the order is placed or {@link #restore} if it failed.
+     */
+    public Map<Long, Integer> takeForCheckout(Long userId) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            if (shard.checkingOut.contains(userId)) {
+                throw new ConflictException("Checkout already in progress");
+            }
+            Map<Long, Integer> cart = shard.carts.remove(userId);
+            if (cart == null || cart.isEmpty()) {
+                throw new InvalidRequestException("Cart is empty");
+            }
+            shard.checkingOut.add(userId);
+            return cart;
+        }
+    }
+
+    public void checkedOut(Long userId) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            shard.checkingOut.remove(userId);
+            shard.dirty.add(userId);
+        }
+    }
+
+    // Puts the lines of a failed checkout back, on top of anything added while it ran
+    public void restore(Long userId, Map<Long, Integer> lines) {
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Map<Long, Integer> cart = shard.carts.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+            lines.forEach((productId, quantity) -> cart.merge(productId, quantity, Math::addExact));
+            shard.checkingOut.remove(userId);
+            changed(shard, userId);
+        }
+    }
+
+    // A deleted product leaves every cart; rare enough to walk all of them
+    public void removeProduct(Long productId) {
+        removeProducts(Set.of(productId));
+    }
+
+    // Products deleted together, e.g. with their category, are taken out in one walk
+    public void removeProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> removed = Set.copyOf(productIds);
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.carts.entrySet().removeIf(entry -> {
+                    if (!entry.getValue().keySet().removeAll(removed)) {
+                        return false;
+                    }
+                    shard.dirty.add(entry.getKey());
+                    return entry.getValue().isEmpty();
+                });
+            }
+        }
+    }
+
+    // Drops carts left unchanged for idleDays; the next flush deletes their rows
+    @Scheduled(cron = "${cart.evict-cron:0 0 4 * * *}")
+    public void evictIdle() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(idleDays);
+        int evicted = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.changedAt.keySet().retainAll(shard.carts.keySet());
+                Iterator<Map.Entry<Long, LocalDateTime>> idle = shard.changedAt.entrySet().iterator();
+                while (idle.hasNext()) {
+                    Map.Entry<Long, LocalDateTime> entry = idle.next();
+                    if (entry.getValue().isBefore(cutoff) && !shard.checkingOut.contains(entry.getKey())) {
+                        shard.carts.remove(entry.getKey());
+                        shard.dirty.add(entry.getKey());
+                        idle.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} carts idle for more than {} days", evicted, idleDays);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        // Each dirty user's current cart, read shard by shard; the writes happen outside the shard locks
+        Map<Long, Map<Long, Integer>> snapshot = new HashMap<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                // A cart taken out for checkout is written once the checkout ends
+                shard.dirty.removeIf(userId -> {
+                    if (shard.checkingOut.contains(userId)) {
+                        return false;
+                    }
+                    Map<Long, Integer> cart = shard.carts.get(userId);
+                    snapshot.put(userId, cart != null ? new LinkedHashMap<>(cart) : Map.of());
+                    return true;
+                });
+            }
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> deletes = new ArrayList<>(snapshot.size());
+        List<Object[]> inserts = new ArrayList<>();
+        snapshot.forEach((userId, cart) -> {
+            deletes.add(new Object[] { userId });
+            cart.forEach((productId, quantity) -> inserts.add(new Object[] { userId, productId, quantity, now }));
+        });
+
+        try {
+            // A user's rows are replaced as a whole, in one transaction for all users
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE user_id = ?", deletes);
+                jdbcTemplate.batchUpdate("INSERT INTO cart_items (user_id, product_id, quantity, updated_at) VALUES (?, ?, ?, ?)",
+                        inserts);
+            });
+        } catch (DataAccessException e) {
+            // Marked dirty again, so the next flush writes whatever the carts hold by then
+            for (Long userId : snapshot.keySet()) {
+                Shard shard = shard(userId);
+                synchronized (shard) {
+                    shard.dirty.add(userId);
+                }
+            }
+            log.warn("Cart flush of {} users failed, will retry: {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void checkRoom(Map<Long, Integer> cart, Long productId) {
+        if (!cart.containsKey(productId) && cart.size() >= maxLines) {
+            throw new InvalidRequestException("A cart can hold at most " + maxLines + " products");
+        }
+    }
+
+    private static void changed(Shard shard, Long userId) {
+        shard.dirty.add(userId);
+        shard.changedAt.put(userId, LocalDateTime.now());
+    }
+
+    private static void dropIfEmpty(Shard shard, Long userId, Map<Long, Integer> cart) {
+        if (cart.isEmpty()) {
+            shard.carts.remove(userId);
+        }
+    }
+
+    private Shard shard(Long userId) {
+        return shards[Math.floorMod(userId.hashCode(), SHARDS)];
+    }
+
+    private static final class Shard {
+        private final Map<Long, Map<Long, Integer>> carts = new HashMap<>();
+        // Users whose cart changed since the last flush
+        private final Set<Long> dirty = new HashSet<>();
+        // Users whose cart was taken out by a checkout still running; their rows stay until it ends
+        private final Set<Long> checkingOut = new HashSet<>();
+        // When each user's cart last changed, for idle eviction
+        private final Map<Long, LocalDateTime> changedAt = new HashMap<>();
+    }
+}
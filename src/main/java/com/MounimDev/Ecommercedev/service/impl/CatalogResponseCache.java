@@ -0,0 +1,172 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the final serialized JSON of hot catalog responses, keyed by endpoint and catalog version.
+ * A hit skips the database, the mapper and Jackson entirely and writes the stored bytes straight to the servlet stream.
+ * The least recently used entries are evicted once the cache holds too many entries or too many bytes.
+ */
+@Service
+@Slf4j
+public class CatalogResponseCache {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersionService catalogVersionService;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean gzipEnabled;
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedBody> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+                                CatalogVersionService catalogVersionService,
+                                @Value("${catalog.response-cache.max-entries:2000}") int maxEntries,
+                                @Value("${catalog.response-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${catalog.response-cache.gzip:true}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.catalogVersionService = catalogVersionService;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public void write(String key, HttpServletRequest request, HttpServletResponse response,
+                      Supplier<Response> loader) throws IOException {
+        CachedBody body = lookup(key, loader);
+
+        boolean gzip = body.gzip() != null && acceptsGzip(request);
+        byte[] bytes = gzip ? body.gzip() : body.json();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        response.flushBuffer();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    private CachedBody lookup(String key, Supplier<Response> loader) throws IOException {
+        // Read the version before loading so a concurrent mutation can only make the entry stale, never wrong
+        long version = catalogVersionService.currentVersion();
+
+        CachedBody cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(loader.get());
+        byte[] gzip = gzipEnabled && json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+        CachedBody body = new CachedBody(version, json, gzip);
+
+        if (body.size() <= maxBytes) {
+            put(key, body);
+        }
+        return body;
+    }
+
+    private void put(String key, CachedBody body) {
+        synchronized (entries) {
+            CachedBody previous = entries.put(key, body);
+            cachedBytes += body.size() - (previous != null ? previous.size() : 0);
+            Iterator<CachedBody> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || cachedBytes > maxBytes) && eldest.hasNext()) {
+                cachedBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip: listed as gzip or x-gzip, or covered by *, with a
+     * q-value above 0. An explicit gzip entry wins over *, so "gzip;q=0, *" refuses gzip.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = qValue(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        Double accepted = gzip != null ? gzip : any;
+        return accepted != null && accepted > 0;
+    }
+
+    // q defaults to 1; a malformed one is treated as 0, i.e. not acceptable
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    double q = Double.parseDouble(parameter.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private record CachedBody(long version, byte[] json, byte[] gzip) {
+        long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
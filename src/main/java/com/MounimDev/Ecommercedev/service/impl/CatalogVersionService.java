@@ -0,0 +1,40 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Monotonically increasing version of the product catalog.
+ * Every product or category mutation bumps it, so anything derived from the catalog can be keyed by it.
+ */
+@Service
+public class CatalogVersionService {
+
+    // Distinguishes this process so versions restarting at 1 after a redeploy never collide with old ETags
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicReference<CatalogVersion> current =
+            new AtomicReference<>(new CatalogVersion(1, System.currentTimeMillis()));
+
+    public CatalogVersion current() {
+        return current.get();
+    }
+
+    public long currentVersion() {
+        return current.get().version();
+    }
+
+    public String etag(CatalogVersion version) {
+        return "\"" + instanceId + "-" + version.version() + "\"";
+    }
+
+    public void bump() {
+        // Last-Modified has second precision, so every bump must move it to a later second
+        current.updateAndGet(v -> new CatalogVersion(v.version() + 1,
+                Math.max(System.currentTimeMillis(), (v.lastModified() / 1000 + 1) * 1000)));
+    }
+
+    public record CatalogVersion(long version, long lastModified) {
+    }
+}
@@ -2,23 +2,30 @@ package com.MounimDev.Ecommercedev.service.impl;
 
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.MounimDev.Ecommercedev.dto.CategoryDto;
 import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
 import com.MounimDev.Ecommercedev.dto.Response;
 import com.MounimDev.Ecommercedev.entity.Category;
-import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.index.CatalogIndexer;
 import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
 import com.MounimDev.Ecommercedev.repository.CategoryRepo;
 import com.MounimDev.Ecommercedev.repository.ProductRepo;
 import com.MounimDev.Ecommercedev.service.interf.CategoryService;
+import com.MounimDev.Ecommercedev.specification.productSpecification;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +40,12 @@ public class CategoryServiceImpl implements CategoryService{
 	private final CategoryRepo categoryRepo;
 	private final EntityDtoMapper entityDtoMapper; 
 	private final ProductRepo productRepo;
+	private final CatalogVersionService catalogVersionService;
+	private final ProductCacheService productCacheService;
+	private final CatalogIndexer catalogIndexer;
+	private final ProductKeysetService productKeysetService;
+	private final StockLedger stockLedger;
+	private final CartStore cartStore;
 	
 
 	@Override
@@ -41,6 +54,7 @@ public class CategoryServiceImpl implements CategoryService{
 		Category category = new Category();
 		category.setName(categoryRequest.getName());
 		categoryRepo.save(category);
+		catalogVersionService.bump();
 		
 		return Response.builder()
 				.status(200)
@@ -53,6 +67,7 @@ public class CategoryServiceImpl implements CategoryService{
 			Category category = categoryRepo.findById(categoryId).orElseThrow(()->new NotFoundException("Category Not Found"));
 			category.setName(categoryRequest.getName());
 			categoryRepo.save(category);
+			catalogVersionService.bump();
 			
 			return Response.builder()
 					.status(200)
@@ -87,10 +102,20 @@ public class CategoryServiceImpl implements CategoryService{
 	}
 
 	@Override
+	@Transactional
 	public Response deleteCategory(Long categoryId) {
 		Category category = categoryRepo.findById(categoryId).orElseThrow(()->new NotFoundException("Category Not Found"));
 		
+		// Deleting a category cascades to its products, so their ids are read before they are gone
+		List<Long> productIds = productRepo.findIdsByCategoryId(categoryId);
 		categoryRepo.delete(category);
+		afterCommit(() -> {
+			productCacheService.clear();
+			catalogIndexer.categoryDeleted(categoryId);
+			productIds.forEach(stockLedger::remove);
+			cartStore.removeProducts(productIds);
+			catalogVersionService.bump();
+		});
 		
 		return Response.builder()
 				.status(200)
@@ -99,7 +124,7 @@ public class CategoryServiceImpl implements CategoryService{
 	}
 	
 	@Override
-	public Response getProductsByCategory(Long categoryId, int page, int size) {
+	public Response getProductsByCategory(Long categoryId, int page, int size, Set<ProductField> fields) {
 	    // Verify category exists
 	    Category category = categoryRepo.findById(categoryId)
 	        .orElseThrow(() -> new NotFoundException("Category Not Found"));
@@ -108,15 +133,15 @@ public class CategoryServiceImpl implements CategoryService{
 	    Pageable pageable = PageRequest.of(page, size);
 	    
 	    // Get paginated products (only purchasable ones)
-	    Page<Product> productsPage = productRepo.findByCategoryIdAndPurchasable(
-	        categoryId, 
-	        true,  // Only purchasable products
-	        pageable
+	    Page<ProductSummary> productsPage = productRepo.findSummaries(
+	        productSpecification.inCategory(categoryId).and(productSpecification.isPurchasable(true)),
+	        pageable,
+	        fields
 	    );
 	    
 	    // Map to DTOs
 	    List<ProductDto> productDtos = productsPage.getContent().stream()
-	        .map(entityDtoMapper::mapProductToDtobasic)
+	        .map(product -> entityDtoMapper.mapProductSummaryToDto(product, fields))
 	        .collect(Collectors.toList());
 	    
 	    return Response.builder()
@@ -129,6 +154,30 @@ public class CategoryServiceImpl implements CategoryService{
 	        .build();
 	}
 	
+	@Override
+	public Response getProductsByCategory(Long categoryId, String sort, String cursor, int size, Set<ProductField> fields) {
+	    Category category = categoryRepo.findById(categoryId)
+	        .orElseThrow(() -> new NotFoundException("Category Not Found"));
+	    
+	    // Only purchasable products, one keyset page at a time
+	    Response response = productKeysetService.scroll(
+	        productSpecification.inCategory(categoryId).and(productSpecification.isPurchasable(true)),
+	        sort, cursor, size, fields);
+	    response.setCategory(entityDtoMapper.mapCategoryToDtoBasic(category));
+	    return response;
+	}
 	
-
+	// Runs the action once the current transaction has committed, or right away outside one
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
 }
@@ -0,0 +1,163 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.exception.ConflictException;
+import com.MounimDev.Ecommercedev.exception.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a request at most once per Idempotency-Key. The first request with a key starts the work
+ * and stores its pending result; a retry gets the stored result without running anything, and a
+ * duplicate arriving while the first is still running waits for it, up to a bound, then gets a 409.
+ * Keys are scoped to the caller and expire after a TTL. Once the store is full, expired keys go
+ * first, then the oldest finished ones; a request still running is never forgotten. Failed
+ * attempts are not remembered, so they can be retried with the same key.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long waitMillis;
+    // Insertion order, and with one TTL for all also expiry order
+    private final LinkedHashMap<String, StoredResult> entries = new LinkedHashMap<>();
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${idempotency.max-size:10000}") int maxSize,
+                              @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency.wait-seconds:10}") long waitSeconds) {
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.waitMillis = waitSeconds * 1000;
+    }
+
+    /**
+     * @param request the request body; a key reused with a different body is rejected with a 422
+     */
+    public Response execute(String key, Object request, Supplier<Response> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = caller() + ":" + key;
+        String fingerprint = fingerprint(request);
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        StoredResult existing;
+
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            removeExpired(now);
+            existing = entries.get(scopedKey);
+            if (existing == null) {
+                makeRoom();
+                entries.put(scopedKey, new StoredResult(result, fingerprint, now + ttlMillis));
+            }
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+            }
+            log.info("Replaying result for idempotency key {}", key);
+            return await(existing.result(), waitMillis);
+        }
+
+        try {
+            Response response = action.get();
+            result.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                StoredResult stored = entries.get(scopedKey);
+                if (stored != null && stored.result() == result) {
+                    entries.remove(scopedKey);
+                }
+            }
+            // Duplicates already waiting on this attempt fail with it
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // SHA-256 of the body as JSON, so equal bodies match whatever their classes do for hashCode
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the request", e);
+        }
+    }
+
+    // Expired keys sit at the head, so this stops at the first live one
+    private void removeExpired(long now) {
+        Iterator<StoredResult> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt() <= now) {
+            oldest.remove();
+        }
+    }
+
+    // Drops the oldest finished key when full; with every key still running the store grows past maxSize instead
+    private void makeRoom() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        Iterator<StoredResult> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            if (oldest.next().result().isDone()) {
+                oldest.remove();
+                return;
+            }
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> result, long waitMillis) {
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still being processed, retry later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private record StoredResult(CompletableFuture<Response> result, String fingerprint, long expiresAt) {
+    }
+}
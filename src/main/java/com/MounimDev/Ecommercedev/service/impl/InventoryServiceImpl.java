@@ -0,0 +1,54 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+import com.MounimDev.Ecommercedev.service.interf.InventoryService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+	private final StockLedger stockLedger;
+	private final ProductRepo productRepo;
+
+	@Override
+	public Response getStock(Long productId) {
+		if (!productRepo.existsById(productId)) {
+			throw new NotFoundException("Product Not Found");
+		}
+		return stockResponse(productId, "Stock retrieved");
+	}
+
+	@Override
+	public Response setStock(Long productId, long quantity) {
+		if (!productRepo.existsById(productId)) {
+			throw new NotFoundException("Product Not Found");
+		}
+		stockLedger.set(productId, quantity);
+		return stockResponse(productId, "Stock updated");
+	}
+
+	private Response stockResponse(Long productId, String message) {
+		OptionalLong available = stockLedger.available(productId);
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("productId", productId);
+		data.put("tracked", available.isPresent());
+		if (available.isPresent()) {
+			data.put("available", available.getAsLong());
+		}
+		return Response.builder()
+				.status(200)
+				.message(message)
+				.data(data)
+				.build();
+	}
+}
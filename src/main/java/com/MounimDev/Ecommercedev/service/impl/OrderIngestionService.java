@@ -0,0 +1,220 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.entity.Order;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.exception.ServiceUnavailableException;
+import com.MounimDev.Ecommercedev.index.CatalogIndexer;
+import com.MounimDev.Ecommercedev.repository.OrderRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group-commit writer for accepted orders. Request threads validate an order, reserve its stock
+ * and put it on a bounded queue; a single writer thread drains the queue and saves up to a batch
+ * of orders per transaction, so their inserts go out as JDBC batches on one connection instead of
+ * one connection and commit per order. When the queue is full new orders are refused with a 503
+ * rather than piling up on the connection pool.
+ *
+ * Queued orders live only in memory: orders still queued when the process dies are lost, and
+ * their stock reservations with them.
+ */
+@Component
+@Slf4j
+public class OrderIngestionService {
+
+    public enum Status { QUEUED, PLACED, FAILED }
+
+    private final OrderRepo orderRepo;
+    private final StockLedger stockLedger;
+    private final CatalogIndexer catalogIndexer;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Order> queue;
+    private final int batchSize;
+    private final int failureHistory;
+
+    // Accepted orders not yet committed; once committed the orders table answers for them
+    private final Map<String, Status> queued = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, String> failures;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIngestionService(OrderRepo orderRepo, StockLedger stockLedger, CatalogIndexer catalogIndexer,
+                                 SalesRollupService salesRollupService, PlatformTransactionManager transactionManager,
+                                 @Value("${orders.ingest.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${orders.ingest.batch-size:100}") int batchSize,
+                                 @Value("${orders.ingest.failure-history:10000}") int failureHistory) {
+        this.orderRepo = orderRepo;
+        this.stockLedger = stockLedger;
+        this.catalogIndexer = catalogIndexer;
+        this.salesRollupService = salesRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.failureHistory = failureHistory;
+        this.failures = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > OrderIngestionService.this.failureHistory;
+            }
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::drain, "order-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues an order whose stock is already reserved. If it cannot be queued the reservation is
+     * released before this throws.
+     *
+     * @return the order reference to poll
+     */
+    public String submit(Order order) {
+        String reference = order.getReference();
+        queued.put(reference, Status.QUEUED);
+        if (!running || !queue.offer(order)) {
+            queued.remove(reference);
+            stockLedger.release(quantities(order));
+            throw new ServiceUnavailableException("Too many orders in progress, please retry shortly");
+        }
+        return reference;
+    }
+
+    public Status status(String reference) {
+        if (queued.containsKey(reference)) {
+            return Status.QUEUED;
+        }
+        synchronized (failures) {
+            if (failures.containsKey(reference)) {
+                return Status.FAILED;
+            }
+        }
+        if (orderRepo.existsByReference(reference)) {
+            return Status.PLACED;
+        }
+        throw new NotFoundException("Order not found");
+    }
+
+    public String failure(String reference) {
+        synchronized (failures) {
+            return failures.get(reference);
+        }
+    }
+
+    // Product id -> quantity over all lines of the order
+    public static Map<Long, Integer> quantities(Order order) {
+        return order.getOrderItemList().stream()
+                .collect(Collectors.toMap(orderItem -> orderItem.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+    }
+
+    private void drain() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Order first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order writer failed on a batch of {} orders", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Only the saves are retried; orders are marked placed once their transaction has committed,
+    // so a later failure can neither save an order twice nor release the stock of a placed one
+    private void write(List<Order> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepo.saveAll(batch));
+        } catch (RuntimeException e) {
+            // One bad order must not sink the rest of its batch, so each is retried on its own
+            log.warn("Batch of {} orders failed, saving them one by one: {}", batch.size(), e.getMessage());
+            for (Order order : batch) {
+                writeOne(order);
+            }
+            return;
+        }
+        batch.forEach(this::placed);
+    }
+
+    private void writeOne(Order order) {
+        clearIds(order);
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepo.save(order));
+        } catch (RuntimeException e) {
+            failed(order, e);
+            return;
+        }
+        placed(order);
+    }
+
+    private void placed(Order order) {
+        try {
+            quantities(order).forEach(catalogIndexer::productSold);
+            salesRollupService.orderPlaced(order);
+        } catch (RuntimeException e) {
+            // The order is committed either way; only its popularity and rollup deltas are missed
+            log.warn("Order {} was saved but its follow-up updates failed: {}", order.getReference(), e.getMessage());
+        } finally {
+            queued.remove(order.getReference());
+        }
+    }
+
+    private void failed(Order order, RuntimeException e) {
+        log.warn("Order {} could not be saved: {}", order.getReference(), e.getMessage());
+        stockLedger.release(quantities(order));
+        synchronized (failures) {
+            failures.put(order.getReference(), "Order could not be saved");
+        }
+        queued.remove(order.getReference());
+    }
+
+    // Ids handed out by the rolled back attempt would make the retry a merge instead of an insert
+    private static void clearIds(Order order) {
+        order.setId(null);
+        order.getOrderItemList().forEach(orderItem -> orderItem.setId(null));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Stop taking orders, then let the writer finish what is already queued
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("{} queued orders were not written before shutdown", queue.size());
+        }
+    }
+}
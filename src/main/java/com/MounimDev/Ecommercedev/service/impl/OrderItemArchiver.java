@@ -0,0 +1,129 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves finished order items older than {@code orders.archive.min-age-days} from order_items to
+ * order_items_archive, a chunk of rows per transaction, so the hot table and its indexes only hold
+ * recent and open items. Archived items keep their ids and can still be listed, but their status
+ * can no longer be changed.
+ */
+@Component
+@Slf4j
+public class OrderItemArchiver {
+
+    public static final Set<OrderStatus> ARCHIVED_STATUSES =
+            EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    private final ArchivedOrderItemRepo archivedOrderItemRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int minAgeDays;
+    private final int chunkSize;
+
+    // Newest createdAt in the archive; filters starting after it never need to read the archive
+    private volatile LocalDateTime archivedUntil;
+
+    public OrderItemArchiver(ArchivedOrderItemRepo archivedOrderItemRepo, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${orders.archive.min-age-days:365}") int minAgeDays,
+                             @Value("${orders.archive.chunk-size:1000}") int chunkSize) {
+        this.archivedOrderItemRepo = archivedOrderItemRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostConstruct
+    void load() {
+        archivedUntil = archivedOrderItemRepo.findLatestCreatedAt();
+        // Rows archived before users carried the flag; a no-op once every such user has it
+        int flagged = jdbcTemplate.update("UPDATE users u SET order_history_archived = TRUE WHERE order_history_archived = FALSE "
+                + "AND EXISTS (SELECT 1 FROM order_items_archive a WHERE a.user_id = u.id)");
+        if (flagged > 0) {
+            log.info("Flagged {} users with archived order items", flagged);
+        }
+    }
+
+    /**
+     * Whether a filter on this status and start date can match archived items. A status filter
+     * on an open status, or a start after the newest archived item, is answered by order_items alone.
+     */
+    public boolean mayHold(OrderStatus status, LocalDateTime startDate) {
+        LocalDateTime until = archivedUntil;
+        if (until == null || (status != null && !ARCHIVED_STATUSES.contains(status))) {
+            return false;
+        }
+        return startDate == null || !startDate.isAfter(until);
+    }
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public synchronized int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveChunk(cutoff);
+            total += moved;
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            archivedUntil = archivedOrderItemRepo.findLatestCreatedAt();
+            log.info("Archived {} order items created before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        return transactionTemplate.execute(status -> {
+            // Locked until the chunk commits, so a status change cannot slip in between copy and delete
+            List<Object> args = new ArrayList<>();
+            ARCHIVED_STATUSES.forEach(archived -> args.add(archived.ordinal()));
+            args.add(cutoff);
+            args.add(chunkSize);
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM order_items WHERE status IN ("
+                    + placeholders(ARCHIVED_STATUSES.size()) + ") AND created_at < ? ORDER BY id LIMIT ? FOR UPDATE",
+                    Long.class, args.toArray());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            String in = placeholders(ids.size());
+            List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+            copyArgs.add(LocalDateTime.now());
+            copyArgs.addAll(ids);
+            jdbcTemplate.update("INSERT INTO order_items_archive "
+                    + "(id, quantity, price, status, user_id, product_id, order_id, created_at, archived_at) "
+                    + "SELECT id, quantity, price, status, user_id, product_id, order_id, created_at, ? "
+                    + "FROM order_items WHERE id IN (" + in + ")", copyArgs.toArray());
+            // Their owners' histories now need the archive too
+            jdbcTemplate.update("UPDATE users SET order_history_archived = TRUE WHERE order_history_archived = FALSE "
+                    + "AND id IN (SELECT user_id FROM order_items WHERE id IN (" + in + "))", ids.toArray());
+            jdbcTemplate.update("DELETE FROM order_items WHERE id IN (" + in + ")", ids.toArray());
+            return ids.size();
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.dto.AddressDto;
+import com.MounimDev.Ecommercedev.dto.OrderItemDto;
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.UserDto;
+import com.MounimDev.Ecommercedev.entity.ArchivedOrderItem;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
+import com.MounimDev.Ecommercedev.repository.OrderItemRepo;
+import com.MounimDev.Ecommercedev.specification.orderItemSpecification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams filtered order items as CSV or NDJSON, newest first.
+ *
+ * Rows are read in id-keyset batches with product, user and address fetch-joined, so a batch is one
+ * select; each batch is mapped, cleared from the persistence context and written before the next is read.
+ * When the filter reaches into the archive, each batch reads both tables below the same id and keeps
+ * the newest rows of the two.
+ */
+@Service
+@Slf4j
+public class OrderItemExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int BATCH_SIZE = 500;
+    private static final String CSV_HEADER = "id,createdAt,status,quantity,price,productId,productCode,productName,"
+            + "userId,userName,userEmail,userPhone,street,city,state,zipCode,country";
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+
+    private final OrderItemRepo orderItemRepo;
+    private final ArchivedOrderItemRepo archivedOrderItemRepo;
+    private final OrderItemArchiver orderItemArchiver;
+    private final EntityDtoMapper entityDtoMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public OrderItemExportService(OrderItemRepo orderItemRepo, ArchivedOrderItemRepo archivedOrderItemRepo,
+                                  OrderItemArchiver orderItemArchiver, EntityDtoMapper entityDtoMapper,
+                                  EntityManager entityManager, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.orderItemRepo = orderItemRepo;
+        this.archivedOrderItemRepo = archivedOrderItemRepo;
+        this.orderItemArchiver = orderItemArchiver;
+        this.entityDtoMapper = entityDtoMapper;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(OrderItemDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long export(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId,
+                       Format format, OutputStream out) throws IOException {
+        Specification<OrderItem> filter = orderItemSpecification.matching(status, startDate, endDate, itemId);
+        Specification<ArchivedOrderItem> archivedFilter = orderItemArchiver.mayHold(status, startDate)
+                ? orderItemSpecification.matching(status, startDate, endDate, itemId)
+                : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long written = 0;
+        Long lastId = null;
+        List<OrderItemDto> batch;
+        do {
+            batch = readBatch(filter, archivedFilter, lastId);
+            for (OrderItemDto item : batch) {
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, item);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(item));
+                }
+                writer.write('\n');
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                written += batch.size();
+            }
+            writer.flush();
+        } while (batch.size() == BATCH_SIZE);
+
+        log.info("Exported {} order items as {}", written, format);
+        return written;
+    }
+
+    // archivedFilter is null when the archive cannot hold matching rows
+    private List<OrderItemDto> readBatch(Specification<OrderItem> filter, Specification<ArchivedOrderItem> archivedFilter,
+                                         Long lastId) {
+        Specification<OrderItem> spec = filter
+                .and(orderItemSpecification.idBefore(lastId))
+                .and(orderItemSpecification.fetchProductAndUser());
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "id");
+        return readOnlyTransaction.execute(status -> {
+            Stream<OrderItemDto> items = orderItemRepo.findBy(spec,
+                    query -> query.sortBy(newestFirst).limit(BATCH_SIZE).all())
+                    .stream()
+                    .map(entityDtoMapper::mapOrderItemToDtoPlusProductAndUser);
+            if (archivedFilter != null) {
+                Specification<ArchivedOrderItem> archivedSpec = archivedFilter
+                        .and(orderItemSpecification.idBefore(lastId))
+                        .and(orderItemSpecification.fetchProductAndUser());
+                Stream<OrderItemDto> archived = archivedOrderItemRepo.findBy(archivedSpec,
+                        query -> query.sortBy(newestFirst).limit(BATCH_SIZE).all())
+                        .stream()
+                        .map(orderItem -> entityDtoMapper.mapOrderItemToDto(orderItem, OrderItemField.ALL));
+                // Rows past the batch are read again, below the new last id, by the next batch
+                items = Stream.concat(items, archived)
+                        .sorted(Comparator.comparing(OrderItemDto::getId).reversed())
+                        .limit(BATCH_SIZE);
+            }
+            List<OrderItemDto> batch = items.collect(Collectors.toList());
+            entityManager.clear();
+            return batch;
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, OrderItemDto item) throws IOException {
+        ProductDto product = item.getProduct();
+        UserDto user = item.getUser();
+        AddressDto address = user != null ? user.getAddress() : null;
+
+        writeCsv(writer, item.getId(), false);
+        writeCsv(writer, item.getCreatedAt(), true);
+        writeCsv(writer, item.getStatus(), true);
+        writeCsv(writer, item.getQuantity(), true);
+        writeCsv(writer, item.getPrice(), true);
+        writeCsv(writer, product != null ? product.getId() : null, true);
+        writeCsv(writer, product != null ? product.getProductCode() : null, true);
+        writeCsv(writer, product != null ? product.getName() : null, true);
+        writeCsv(writer, user != null ? user.getId() : null, true);
+        writeCsv(writer, user != null ? user.getName() : null, true);
+        writeCsv(writer, user != null ? user.getEmail() : null, true);
+        writeCsv(writer, user != null ? user.getPhoneNumber() : null, true);
+        writeCsv(writer, address != null ? address.getStreet() : null, true);
+        writeCsv(writer, address != null ? address.getCity() : null, true);
+        writeCsv(writer, address != null ? address.getState() : null, true);
+        writeCsv(writer, address != null ? address.getZipCode() : null, true);
+        writeCsv(writer, address != null ? address.getCountry() : null, true);
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a comma, quote or line break are quoted, quotes doubled.
+     * Text a spreadsheet would run as a formula (starting with =, +, -, @, tab or carriage return)
+     * gets a leading ' first, so a product or address typed as "=HYPERLINK(...)" opens as text.
+     */
+    private static void writeCsv(Writer writer, Object value, boolean separator) throws IOException {
+        if (separator) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && FORMULA_TRIGGERS.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+        } else {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -2,25 +2,51 @@ package com.MounimDev.Ecommercedev.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.MounimDev.Ecommercedev.dto.OrderItemDto;
+import com.MounimDev.Ecommercedev.dto.OrderItemRequest;
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusBulkRequest;
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusResult;
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusResult.Outcome;
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusRow;
 import com.MounimDev.Ecommercedev.dto.OrderRequest;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.entity.ArchivedOrderItem;
+import com.MounimDev.Ecommercedev.entity.BaseOrderItem;
 import com.MounimDev.Ecommercedev.entity.Order;
 import com.MounimDev.Ecommercedev.entity.OrderItem;
 import com.MounimDev.Ecommercedev.entity.Product;
 import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
 import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.exception.ConflictException;
+import com.MounimDev.Ecommercedev.exception.InsufficientStockException;
+import com.MounimDev.Ecommercedev.exception.InvalidRequestException;
 import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.index.CatalogIndexer;
 import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
 import com.MounimDev.Ecommercedev.repository.OrderItemRepo;
 import com.MounimDev.Ecommercedev.repository.OrderRepo;
 import com.MounimDev.Ecommercedev.repository.ProductRepo;
@@ -36,6 +62,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderItemServiceImpl implements OrderItemService {
 	
+	// Ids per IN list and UPDATE statement in bulk status changes
+	private static final int STATUS_UPDATE_CHUNK_SIZE = 1000;
+	private static final int MAX_BULK_ITEMS = 10_000;
+	// Single status updates retried on version conflicts
+	private static final int MAX_STATUS_ATTEMPTS = 5;
+	private static final long STATUS_RETRY_BACKOFF_MS = 10;
+	
 	
 	
 		private final OrderRepo orderRepo;
@@ -43,19 +76,87 @@ public class OrderItemServiceImpl implements OrderItemService {
 	    private final ProductRepo productRepo;
 	    private final UserService userService;
 	    private final EntityDtoMapper entityDtoMapper;
+	    private final CatalogIndexer catalogIndexer;
+	    private final StockLedger stockLedger;
+	    private final OrderIngestionService orderIngestionService;
+	    private final TransactionTemplate transactionTemplate;
+	    private final SalesRollupService salesRollupService;
+	    private final OrderItemArchiver orderItemArchiver;
+	    private final ArchivedOrderItemRepo archivedOrderItemRepo;
 
 	
 	
 	
 	@Override
 	public Response placeOrder(OrderRequest orderRequest) {
+		Order order = buildOrder(orderRequest);
+		Map<Long, Integer> quantities = OrderIngestionService.quantities(order);
+
+        // Order and item ids come from pooled sequences, so the inserts are flushed as JDBC batches
+        try {
+            orderRepo.save(order);
+        } catch (RuntimeException e) {
+            stockLedger.release(quantities);
+            throw e;
+        }
+        quantities.forEach(catalogIndexer::productSold);
+        salesRollupService.orderPlaced(order);
+
+        return Response.builder()
+                .status(200)
+                .message("Order was successfully placed")
+                .data(Map.of("reference", order.getReference()))
+                .build();
+	}
+
+	@Override
+	public Response placeOrderAsync(OrderRequest orderRequest) {
+		Order order = buildOrder(orderRequest);
+		String reference = orderIngestionService.submit(order);
+
+		return Response.builder()
+				.status(202)
+				.message("Order accepted")
+				.data(Map.of("reference", reference, "status", OrderIngestionService.Status.QUEUED))
+				.build();
+	}
+
+	@Override
+	public Response getOrderStatus(String reference) {
+		OrderIngestionService.Status status = orderIngestionService.status(reference);
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("reference", reference);
+		data.put("status", status);
+		String failure = orderIngestionService.failure(reference);
+		if (failure != null) {
+			data.put("reason", failure);
+		}
+		return Response.builder()
+				.status(200)
+				.message("Order " + status.name().toLowerCase())
+				.data(data)
+				.build();
+	}
+
+	// Validates the request and reserves its stock; the returned order is not saved yet
+	private Order buildOrder(OrderRequest orderRequest) {
 		User user = userService.getLoginUser();
 		
+		//load every product of the order in one query instead of one per line
+
+        Set<Long> productIds = orderRequest.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepo.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
 		//map order request items to order entities
 
         List<OrderItem> orderItems = orderRequest.getItems().stream().map(orderItemRequest -> {
-            Product product = productRepo.findById(orderItemRequest.getProductId())
-                    .orElseThrow(()-> new NotFoundException("Product Not Found"));
+            Product product = products.get(orderItemRequest.getProductId());
+            if (product == null) {
+                throw new NotFoundException("Product Not Found");
+            }
             
             
             
@@ -94,47 +195,236 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         //create order entity
         Order order = new Order();
+        order.setReference(UUID.randomUUID().toString());
         order.setOrderItemList(orderItems);
         order.setTotalPrice(totalPrice);
 
         //set the order reference in each orderitem
         orderItems.forEach(orderItem -> orderItem.setOrder(order));
 
-        orderRepo.save(order);
-
-        return Response.builder()
-                .status(200)
-                .message("Order was successfully placed")
-                .build();
+        // Stock for every line is taken at once, or the order is refused before anything is written
+        stockLedger.reserve(OrderIngestionService.quantities(order));
+        return order;
 	}
 
 	@Override
 	public Response updateOrderItemStatus(Long orderItemId, String status) {
+        OrderStatus next = OrderStatus.valueOf(status.toUpperCase());
+
+        // A concurrent change fails the versioned save; the transition is then checked again against the new state
+        for (int attempt = 1; ; attempt++) {
+            try {
+                OrderStatus previous = applyStatus(orderItemId, next);
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("orderItemId", orderItemId);
+                data.put("previous", previous);
+                data.put("status", next);
+                return Response.builder()
+                        .status(200)
+                        .message(previous == next ? "Order item is already " + next : "Order status updated successfully")
+                        .data(data)
+                        .build();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_STATUS_ATTEMPTS) {
+                    throw new ConflictException("Order item " + orderItemId + " keeps changing, status not updated");
+                }
+                log.debug("Order item {} changed concurrently, retrying status update (attempt {})", orderItemId, attempt);
+                backOff(attempt);
+            }
+        }
+	}
+
+	// Returns the status the item had before; nothing is written when it is already at next
+	private OrderStatus applyStatus(Long orderItemId, OrderStatus next) {
 		OrderItem orderItem = orderItemRepo.findById(orderItemId)
                 .orElseThrow(()-> new NotFoundException("Order Item not found"));
 
-        orderItem.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-        orderItemRepo.save(orderItem);
-        return Response.builder()
-                .status(200)
-                .message("Order status updated successfully")
-                .build();
+        OrderStatus previous = orderItem.getStatus();
+        if (previous == next) {
+            return previous;
+        }
+        if (previous != null && !previous.canTransitionTo(next)) {
+            throw new ConflictException("Order item cannot go from " + previous + " to " + next);
+        }
+        Map<Long, Integer> quantity = Map.of(orderItem.getProduct().getId(), orderItem.getQuantity());
+
+        // Cancelling gives the stock back, reviving a cancelled item takes it again
+        boolean reserving = previous == OrderStatus.CANCELLED;
+        boolean releasing = next == OrderStatus.CANCELLED;
+        if (reserving) {
+            stockLedger.reserve(quantity);
+        }
+
+        orderItem.setStatus(next);
+        try {
+            orderItemRepo.save(orderItem);
+        } catch (RuntimeException e) {
+            if (reserving) {
+                stockLedger.release(quantity);
+            }
+            throw e;
+        }
+        if (releasing) {
+            stockLedger.release(quantity);
+        }
+        salesRollupService.statusChanged(orderItem.getCreatedAt(), orderItem.getProduct().getId(), orderItem.getQuantity(),
+                orderItem.getPrice(), previous, next);
+        catalogIndexer.statusChanged(orderItem.getProduct().getId(), orderItem.getQuantity(), previous, next);
+        return previous;
+	}
+
+	// Exponential with jitter, so retrying writers do not collide again in lockstep
+	private static void backOff(int attempt) {
+		long delay = STATUS_RETRY_BACKOFF_MS << (attempt - 1);
+		try {
+			Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while retrying status update", e);
+		}
+	}
+
+	@Override
+	public Response updateOrderItemStatuses(OrderItemStatusBulkRequest request) {
+		if (request.getStatus() == null) {
+			throw new IllegalArgumentException("Target status is required");
+		}
+		OrderStatus next = OrderStatus.valueOf(request.getStatus().toUpperCase());
+
+		// Requested ids keep their order in the results; ids never read back are reported as not found
+		Map<Long, OrderItemStatusResult> results = new LinkedHashMap<>();
+		List<OrderItemStatusRow> rows = new ArrayList<>();
+		if (request.getOrderItemIds() != null && !request.getOrderItemIds().isEmpty()) {
+			List<Long> ids = request.getOrderItemIds().stream().distinct().toList();
+			if (ids.size() > MAX_BULK_ITEMS) {
+				throw new IllegalArgumentException("At most " + MAX_BULK_ITEMS + " order items can be updated at once");
+			}
+			ids.forEach(id -> results.put(id, new OrderItemStatusResult(id, null, Outcome.NOT_FOUND)));
+			for (List<Long> chunk : chunks(ids)) {
+				rows.addAll(orderItemRepo.findStatusRows(orderItemSpecification.idIn(chunk), chunk.size()));
+			}
+		} else {
+			OrderStatus current = request.getCurrentStatus() != null
+					? OrderStatus.valueOf(request.getCurrentStatus().toUpperCase()) : null;
+			if (current == null && request.getStartDate() == null && request.getEndDate() == null) {
+				throw new IllegalArgumentException("Give order item ids or at least one filter");
+			}
+			Specification<OrderItem> spec = orderItemSpecification.matching(current, request.getStartDate(), request.getEndDate(), null);
+			rows = orderItemRepo.findStatusRows(spec, MAX_BULK_ITEMS + 1);
+			if (rows.size() > MAX_BULK_ITEMS) {
+				throw new IllegalArgumentException("Filter matches more than " + MAX_BULK_ITEMS + " order items");
+			}
+		}
+
+		// Items that can move are grouped by where they move from, one guarded UPDATE per chunk of a group
+		Map<OrderStatus, List<OrderItemStatusRow>> movable = new EnumMap<>(OrderStatus.class);
+		for (OrderItemStatusRow row : rows) {
+			if (row.status() == next) {
+				results.put(row.id(), new OrderItemStatusResult(row.id(), row.status(), Outcome.UNCHANGED));
+			} else if (row.status() == null || !row.status().canTransitionTo(next)) {
+				results.put(row.id(), new OrderItemStatusResult(row.id(), row.status(), Outcome.INVALID_TRANSITION));
+			} else {
+				movable.computeIfAbsent(row.status(), status -> new ArrayList<>()).add(row);
+			}
+		}
+		movable.forEach((previous, group) -> chunks(group)
+				.forEach(chunk -> updateStatusChunk(chunk, previous, next, results)));
+
+		Map<Outcome, Long> summary = results.values().stream()
+				.collect(Collectors.groupingBy(OrderItemStatusResult::outcome, () -> new EnumMap<>(Outcome.class),
+						Collectors.counting()));
+		return Response.builder()
+				.status(200)
+				.message(summary.getOrDefault(Outcome.UPDATED, 0L) + " order items updated")
+				.data(Map.of("summary", summary, "results", List.copyOf(results.values())))
+				.build();
+	}
+
+	private void updateStatusChunk(List<OrderItemStatusRow> chunk, OrderStatus previous, OrderStatus next,
+			Map<Long, OrderItemStatusResult> results) {
+		// Same stock rules as a single update: cancelling gives stock back, reviving takes it again
+		boolean reserving = previous == OrderStatus.CANCELLED;
+		boolean releasing = next == OrderStatus.CANCELLED;
+
+		List<OrderItemStatusRow> eligible = new ArrayList<>(chunk.size());
+		for (OrderItemStatusRow row : chunk) {
+			try {
+				if (reserving) {
+					stockLedger.reserve(Map.of(row.productId(), row.quantity()));
+				}
+				eligible.add(row);
+			} catch (InsufficientStockException e) {
+				results.put(row.id(), new OrderItemStatusResult(row.id(), previous, Outcome.INSUFFICIENT_STOCK));
+			}
+		}
+		if (eligible.isEmpty()) {
+			return;
+		}
+
+		List<Long> ids = eligible.stream().map(OrderItemStatusRow::id).toList();
+		Set<Long> updated;
+		try {
+			// Rows moved by someone else since they were read are left out; the rest are locked, so the update changes exactly them
+			updated = transactionTemplate.execute(status -> {
+				List<Long> locked = orderItemRepo.lockIdsWithStatus(ids, previous.ordinal());
+				if (!locked.isEmpty()) {
+					orderItemRepo.updateStatus(locked, previous, next);
+				}
+				return Set.copyOf(locked);
+			});
+		} catch (RuntimeException e) {
+			log.warn("Status update of {} order items failed: {}", ids.size(), e.getMessage());
+			if (reserving) {
+				stockLedger.release(stockQuantities(eligible));
+			}
+			eligible.forEach(row -> results.put(row.id(), new OrderItemStatusResult(row.id(), previous, Outcome.FAILED)));
+			return;
+		}
+
+		Map<Boolean, List<OrderItemStatusRow>> applied = eligible.stream()
+				.collect(Collectors.partitioningBy(row -> updated.contains(row.id())));
+		applied.get(true).forEach(row -> results.put(row.id(), new OrderItemStatusResult(row.id(), previous, Outcome.UPDATED)));
+		applied.get(false).forEach(row -> results.put(row.id(), new OrderItemStatusResult(row.id(), previous, Outcome.CONFLICT)));
+		if (reserving) {
+			stockLedger.release(stockQuantities(applied.get(false)));
+		}
+		if (releasing) {
+			stockLedger.release(stockQuantities(applied.get(true)));
+		}
+		applied.get(true).forEach(row -> salesRollupService.statusChanged(row.createdAt(), row.productId(), row.quantity(),
+				row.price(), previous, next));
+		applied.get(true).forEach(row -> catalogIndexer.statusChanged(row.productId(), row.quantity(), previous, next));
+	}
+
+	private static Map<Long, Integer> stockQuantities(List<OrderItemStatusRow> rows) {
+		return rows.stream().collect(Collectors.toMap(OrderItemStatusRow::productId, OrderItemStatusRow::quantity, Integer::sum));
+	}
+
+	private static <T> List<List<T>> chunks(List<T> list) {
+		List<List<T>> chunks = new ArrayList<>();
+		for (int from = 0; from < list.size(); from += STATUS_UPDATE_CHUNK_SIZE) {
+			chunks.add(list.subList(from, Math.min(from + STATUS_UPDATE_CHUNK_SIZE, list.size())));
+		}
+		return chunks;
 	}
 
 	@Override
 	public Response filterOrderItems(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId,
-			Pageable pageable) {
-		 Specification<OrderItem> spec = Specification.where(orderItemSpecification.hasStatus(status))
-	                .and(orderItemSpecification.createdBetween(startDate, endDate))
-	                .and(orderItemSpecification.hasItemId(itemId));
+			Pageable pageable, Set<OrderItemField> fields) {
+		 Specification<OrderItem> spec = orderItemSpecification.matching(status, startDate, endDate, itemId);
 
-	        Page<OrderItem> orderItemPage = orderItemRepo.findAll(spec, pageable);
+	        // Old finished items live in the archive, which is only read when the filter reaches back that far
+	        if (orderItemArchiver.mayHold(status, startDate)) {
+	            Specification<ArchivedOrderItem> archivedSpec = orderItemSpecification.matching(status, startDate, endDate, itemId);
+	            return filterWithArchive(spec, archivedSpec, pageable, fields);
+	        }
 
+	        Page<OrderItem> orderItemPage = findOrderItems(spec, pageable, fields);
 	        if (orderItemPage.isEmpty()){
 	            throw new NotFoundException("No Order Found");
 	        }
 	        List<OrderItemDto> orderItemDtos = orderItemPage.getContent().stream()
-	                .map(entityDtoMapper::mapOrderItemToDtoPlusProductAndUser)
+	                .map(orderItem -> entityDtoMapper.mapOrderItemToDto(orderItem, fields))
 	                .collect(Collectors.toList());
 
 	        return Response.builder()
@@ -144,7 +434,110 @@ public class OrderItemServiceImpl implements OrderItemService {
 	                .totalElement(orderItemPage.getTotalElements())
 	                .build();
 	}
-	
-	
+
+	/**
+	 * Offset pages over both tables: each is read, newest first, up to the end of the requested page
+	 * and the two reads are merged by id; the totals are the two tables' counts. Deep pages cost what
+	 * they cost on a single table, the cursor variant below keeps every page cheap.
+	 */
+	private Response filterWithArchive(Specification<OrderItem> spec, Specification<ArchivedOrderItem> archivedSpec,
+			Pageable pageable, Set<OrderItemField> fields) {
+		long end = pageable.getOffset() + pageable.getPageSize();
+		if (end > Integer.MAX_VALUE) {
+			throw new InvalidRequestException("Page is too deep, use the cursor to page further");
+		}
+		Pageable head = PageRequest.of(0, (int) end, pageable.getSort());
+		Page<OrderItem> live = findOrderItems(spec, head, fields);
+		Page<ArchivedOrderItem> archived = archivedOrderItemRepo.findAll(archivedSpec, head);
+
+		List<OrderItemDto> orderItemDtos = Stream.<BaseOrderItem>concat(live.getContent().stream(), archived.getContent().stream())
+				.map(orderItem -> Map.entry(orderItem.getId(), entityDtoMapper.mapOrderItemToDto(orderItem, fields)))
+				.sorted(Map.Entry.<Long, OrderItemDto>comparingByKey().reversed())
+				.skip(pageable.getOffset())
+				.limit(pageable.getPageSize())
+				.map(Map.Entry::getValue)
+				.collect(Collectors.toList());
+		if (orderItemDtos.isEmpty()) {
+			throw new NotFoundException("No Order Found");
+		}
+
+		long total = live.getTotalElements() + archived.getTotalElements();
+		return Response.builder()
+				.status(200)
+				.orderItemList(orderItemDtos)
+				.totalPage((int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize()))
+				.totalElement(total)
+				.build();
+	}
+
+	/**
+	 * Each table is read for at most {@code size} items below the cursor's id, newest first, and the
+	 * two reads are merged. A page costs the same however deep it is, and the archive is only read
+	 * when the filter reaches back that far.
+	 */
+	@Override
+	public Response filterOrderItems(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId,
+			String cursor, int size, Set<OrderItemField> fields) {
+		if (size <= 0) {
+			throw new InvalidRequestException("Size must be positive");
+		}
+		Long lastId = parseCursor(cursor);
+		Sort newestFirst = Sort.by(Sort.Direction.DESC, "id");
+
+		Specification<OrderItem> filter = orderItemSpecification.matching(status, startDate, endDate, itemId);
+		Specification<OrderItem> spec = filter.and(orderItemSpecification.idBefore(lastId));
+		List<OrderItem> live = findOrderItems(spec, newestFirst, size, fields);
+
+		List<ArchivedOrderItem> archived = List.of();
+		if (orderItemArchiver.mayHold(status, startDate)) {
+			Specification<ArchivedOrderItem> archivedFilter = orderItemSpecification.matching(status, startDate, endDate, itemId);
+			Specification<ArchivedOrderItem> archivedSpec = archivedFilter.and(orderItemSpecification.idBefore(lastId));
+			archived = archivedOrderItemRepo.findBy(archivedSpec, query -> query.sortBy(newestFirst).limit(size).all());
+		}
+
+		List<Map.Entry<Long, OrderItemDto>> merged = Stream.<BaseOrderItem>concat(live.stream(), archived.stream())
+				.map(orderItem -> Map.entry(orderItem.getId(), entityDtoMapper.mapOrderItemToDto(orderItem, fields)))
+				.sorted(Map.Entry.<Long, OrderItemDto>comparingByKey().reversed())
+				.limit(size)
+				.collect(Collectors.toList());
+		if (merged.isEmpty() && lastId == null) {
+			throw new NotFoundException("No Order Found");
+		}
+
+		// Either table filling its read means there may be more below the last id returned
+		boolean more = live.size() + archived.size() > size || live.size() == size || archived.size() == size;
+		return Response.builder()
+				.status(200)
+				.orderItemList(merged.stream().map(Map.Entry::getValue).collect(Collectors.toList()))
+				.nextCursor(more ? String.valueOf(merged.get(merged.size() - 1).getKey()) : null)
+				.build();
+	}
+
+	// Product and user are only joined into the page when they are returned
+	private Page<OrderItem> findOrderItems(Specification<OrderItem> spec, Pageable pageable, Set<OrderItemField> fields) {
+		if (fields.contains(OrderItemField.PRODUCT) && fields.contains(OrderItemField.USER)) {
+			return orderItemRepo.findAll(spec, pageable);
+		}
+		return orderItemRepo.findBy(spec, query -> query.project(OrderItemField.fetchPaths(fields)).page(pageable));
+	}
+
+	private List<OrderItem> findOrderItems(Specification<OrderItem> spec, Sort sort, int limit, Set<OrderItemField> fields) {
+		if (fields.contains(OrderItemField.PRODUCT) && fields.contains(OrderItemField.USER)) {
+			return orderItemRepo.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+		}
+		return orderItemRepo.findBy(spec, query -> query.project(OrderItemField.fetchPaths(fields)).sortBy(sort).limit(limit).all());
+	}
+
+	// The cursor is the id of the last item returned
+	private static Long parseCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			return Long.valueOf(cursor.trim());
+		} catch (NumberFormatException e) {
+			throw new InvalidRequestException("Invalid cursor");
+		}
+	}
 
 }
@@ -0,0 +1,120 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded read-through cache of fully mapped products, keyed by product id.
+ * Entries are evicted least-recently-used once the cache is full and expire after a fixed TTL.
+ */
+@Service
+@Slf4j
+public class ProductCacheService {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, CachedProduct> entries;
+
+    // Bumped on every invalidation so that loads racing with a write never re-populate stale data
+    private long invalidationEpoch;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCacheService(@Value("${product.cache.max-size:1000}") int maxSize,
+                               @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProduct> eldest) {
+                if (size() > ProductCacheService.this.maxSize) {
+                    sizeEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public ProductDto get(Long productId, Function<Long, ProductDto> loader) {
+        long epoch;
+        synchronized (entries) {
+            CachedProduct cached = entries.get(productId);
+            if (cached != null) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return cached.product();
+                }
+                entries.remove(productId);
+                expirations.incrementAndGet();
+            }
+            epoch = invalidationEpoch;
+        }
+
+        misses.incrementAndGet();
+        ProductDto product = loader.apply(productId);
+
+        synchronized (entries) {
+            if (epoch == invalidationEpoch) {
+                entries.put(productId, new CachedProduct(product, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return product;
+    }
+
+    public void evict(Long productId) {
+        synchronized (entries) {
+            invalidationEpoch++;
+            if (entries.remove(productId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            invalidationEpoch++;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+        log.info("Product cache cleared");
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("sizeEvictions", sizeEvictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private record CachedProduct(ProductDto product, long expiresAt) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
+
+/**
+ * Position in a keyset-paginated product listing: the sort, and the sort value and id of the last
+ * product returned. Clients only ever see it as an opaque URL-safe token.
+ */
+record ProductCursor(String field, Sort.Direction direction, Comparable<?> value, Long id) {
+
+    static final List<String> SORT_FIELDS = List.of("id", "name", "price", "createdAt");
+
+    private static final String VERSION = "p1";
+    private static final String NULL_VALUE = "n";
+    private static final String SOME_VALUE = "v";
+
+    /**
+     * Start of a listing for a "field,direction" sort.
+     */
+    static ProductCursor start(String sort) {
+        String[] parts = sort.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid sort format. Expected 'field,direction'");
+        }
+        String field = SORT_FIELDS.stream()
+                .filter(allowed -> allowed.equalsIgnoreCase(parts[0].trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid sort field. Allowed fields: " + SORT_FIELDS));
+        Sort.Direction direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction. Use 'asc' or 'desc'"));
+        return new ProductCursor(field, direction, null, null);
+    }
+
+    static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ProductCursor start = start(parts[1] + "," + parts[2]);
+            Long id = Long.valueOf(parts[3]);
+            Comparable<?> value = parts[4].startsWith(SOME_VALUE) ? parseValue(start.field(), parts[4].substring(1)) : null;
+            return new ProductCursor(start.field(), start.direction(), value, id);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String token = String.join("|", VERSION, field, direction.name(), String.valueOf(id),
+                value != null ? SOME_VALUE + value : NULL_VALUE);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean isStart() {
+        return id == null;
+    }
+
+    boolean ascending() {
+        return direction.isAscending();
+    }
+
+    // Ties on the sort field are broken by id in the same direction, which makes the order total
+    Sort sort() {
+        return "id".equals(field)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, field).and(Sort.by(direction, "id"));
+    }
+
+    ProductCursor after(ProductSummary product) {
+        Comparable<?> value = switch (field) {
+            case "name" -> product.name();
+            case "price" -> product.price();
+            case "createdAt" -> product.createdAt();
+            default -> product.id();
+        };
+        return new ProductCursor(field, direction, value, product.id());
+    }
+
+    ProductCursor after(ProductDto product) {
+        Comparable<?> value = switch (field) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "createdAt" -> product.getCreatedAt();
+            default -> product.getId();
+        };
+        return new ProductCursor(field, direction, value, product.getId());
+    }
+
+    private static Comparable<?> parseValue(String field, String text) {
+        return switch (field) {
+            case "name" -> text;
+            case "price" -> new BigDecimal(text);
+            case "createdAt" -> LocalDateTime.parse(text);
+            default -> Long.valueOf(text);
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+import com.MounimDev.Ecommercedev.specification.productSpecification;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the catalog as NDJSON (one product per line) in fixed-size id-ordered chunks.
+ *
+ * Each chunk is read in its own read-only transaction, mapped, and cleared from the persistence
+ * context before it is written, so only one chunk is ever held in memory whatever the catalog size.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ProductRepo productRepo;
+    private final EntityDtoMapper entityDtoMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductExportService(ProductRepo productRepo, EntityDtoMapper entityDtoMapper, EntityManager entityManager,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.productRepo = productRepo;
+        this.entityDtoMapper = entityDtoMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long exportNdjson(ProductType type, Boolean purchasable, Long categoryId, OutputStream out) throws IOException {
+        Specification<Product> filter = Specification.where(productSpecification.hasType(type))
+                .and(productSpecification.isPurchasable(purchasable))
+                .and(productSpecification.inCategory(categoryId));
+        ObjectWriter writer = objectMapper.writerFor(ProductDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            Long lastId = null;
+            List<ProductDto> chunk;
+            do {
+                chunk = readChunk(filter, lastId);
+                for (ProductDto product : chunk) {
+                    writer.writeValue(generator, product);
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                    written += chunk.size();
+                }
+                generator.flush();
+            } while (chunk.size() == CHUNK_SIZE);
+
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        log.info("Exported {} products", written);
+        return written;
+    }
+
+    private List<ProductDto> readChunk(Specification<Product> filter, Long lastId) {
+        Specification<Product> spec = filter.and(productSpecification.seekAfter("id", true, null, lastId));
+        return readOnlyTransaction.execute(status -> {
+            List<ProductDto> products = productRepo.findBy(spec,
+                    query -> query.sortBy(Sort.by("id")).limit(CHUNK_SIZE).all())
+                    .stream()
+                    .map(entityDtoMapper::mapProductToDtobasic)
+                    .collect(Collectors.toList());
+            // Detach the chunk even when an open-in-view session spans the whole download
+            entityManager.clear();
+            return products;
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductField;
+import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+import com.MounimDev.Ecommercedev.specification.productSpecification;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cursor-based product listings. Each page seeks past the last (sort value, id) returned and reads
+ * one row more than requested to know whether another page exists, so there is no OFFSET and no
+ * COUNT query: every page costs the same however deep the client has scrolled. Rows are read as
+ * projections, never as managed entities.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductKeysetService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductRepo productRepo;
+    private final EntityDtoMapper entityDtoMapper;
+
+    /**
+     * @param sort   "field,direction", used when starting a listing
+     * @param cursor token from a previous page's nextCursor; blank starts from the beginning
+     * @param fields product fields to return; only these (plus the cursor's id and sort columns) are selected
+     */
+    public Response scroll(Specification<Product> filter, String sort, String cursor, int size,
+                           Set<ProductField> fields) {
+        return scroll(filter, sort, cursor, size, fields,
+                product -> entityDtoMapper.mapProductSummaryToDto(product, fields));
+    }
+
+    /**
+     * @param columns columns the mapper reads on top of the requested fields
+     */
+    public Response scroll(Specification<Product> filter, String sort, String cursor, int size,
+                           Set<ProductField> columns, Function<ProductSummary, ProductDto> mapper) {
+        ProductCursor position = start(sort, cursor, size);
+
+        Specification<Product> spec = Specification.where(filter)
+                .and(productSpecification.seekAfter(position.field(), position.ascending(), position.value(), position.id()));
+        List<ProductSummary> rows = productRepo.findSummaries(spec, position.sort(), size + 1,
+                ProductField.with(columns, ProductField.ID, ProductField.fromAttribute(position.field())));
+
+        boolean hasNext = rows.size() > size;
+        List<ProductSummary> page = hasNext ? rows.subList(0, size) : rows;
+        return build(page.stream().map(mapper).collect(Collectors.toList()),
+                hasNext ? position.after(page.get(page.size() - 1)).encode() : null);
+    }
+
+    static ProductCursor start(String sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // A cursor carries its own sort, so later pages stay consistent with the first one
+        return cursor == null || cursor.isBlank() ? ProductCursor.start(sort) : ProductCursor.decode(cursor);
+    }
+
+    static Response build(List<ProductDto> products, String nextCursor) {
+        return Response.builder()
+                .status(200)
+                .message("Products retrieved successfully")
+                .productList(products)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -2,8 +2,6 @@ package com.MounimDev.Ecommercedev.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,27 +12,40 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.ProductSummary;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.dto.SuggestionDto;
 import com.MounimDev.Ecommercedev.entity.Category;
 import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.entity.ProductSpecifications;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 import com.MounimDev.Ecommercedev.enums.ProductType;
 import com.MounimDev.Ecommercedev.exception.NotFoundException;
+import com.MounimDev.Ecommercedev.index.CatalogFacets;
+import com.MounimDev.Ecommercedev.index.CatalogIndexer;
+import com.MounimDev.Ecommercedev.index.CatalogPage;
+import com.MounimDev.Ecommercedev.index.CatalogQuery;
+import com.MounimDev.Ecommercedev.index.ProductCatalogIndex;
+import com.MounimDev.Ecommercedev.index.ProductSearchExecutor;
+import com.MounimDev.Ecommercedev.index.ProductSuggestIndex;
 import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
 import com.MounimDev.Ecommercedev.repository.CategoryRepo;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
 import com.MounimDev.Ecommercedev.repository.OrderItemRepo;
 import com.MounimDev.Ecommercedev.repository.ProductRepo;
 import com.MounimDev.Ecommercedev.security.AwsS3Service;
 import com.MounimDev.Ecommercedev.service.interf.ProductService;
 import com.MounimDev.Ecommercedev.service.interf.UserService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.MounimDev.Ecommercedev.specification.productSpecification;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,8 +61,17 @@ public class ProductServiceImpl implements ProductService {
     private final AwsS3Service awsS3Service;
     private final NotificationService notificationService;
     private final UserService userService;
-    private final ObjectMapper objectMapper;
     private final OrderItemRepo orderItemRepo;
+    private final ArchivedOrderItemRepo archivedOrderItemRepo;
+    private final ProductCacheService productCacheService;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogIndexer catalogIndexer;
+    private final ProductCatalogIndex productCatalogIndex;
+    private final ProductSearchExecutor productSearchExecutor;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductKeysetService productKeysetService;
+    private final StockLedger stockLedger;
+    private final CartStore cartStore;
 
     @Override
     public Response createProduct(Long categoryId, MultipartFile image, String name, 
@@ -91,13 +111,14 @@ public class ProductServiceImpl implements ProductService {
             
             // Handle specifications
             if (specifications != null && !specifications.isEmpty()) {
-                product.setSpecifications(objectMapper.writeValueAsString(specifications));
+                product.setSpecifications(ProductSpecifications.of(specifications));
             } else if (type == ProductType.RECONDITIONED) {
                 throw new IllegalArgumentException("Reconditioned products require specifications");
             }
             
             // Save product
             product = productRepo.save(product);
+            onProductSaved(product);
             
             // Send notification
             notificationService.sendProductOperationEmail(
@@ -112,8 +133,6 @@ public class ProductServiceImpl implements ProductService {
                     .product(entityDtoMapper.mapProductToDtobasic(product))
                     .build();
                     
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Invalid specifications format");
         } catch (Exception e) {
             log.error("Error creating product", e);
             throw new RuntimeException("Error creating product: " + e.getMessage());
@@ -168,7 +187,7 @@ public class ProductServiceImpl implements ProductService {
                 if (existingType == ProductType.RECONDITIONED && specifications.isEmpty()) {
                     throw new IllegalArgumentException("Reconditioned products require specifications");
                 }
-                product.setSpecifications(objectMapper.writeValueAsString(specifications));
+                product.setSpecifications(ProductSpecifications.of(specifications));
             }
 
             // COMMON FIELD UPDATES
@@ -188,6 +207,7 @@ public class ProductServiceImpl implements ProductService {
             if (model != null) product.setModel(model);
 
             Product updatedProduct = productRepo.save(product);
+            onProductSaved(updatedProduct);
 
             // Notification
             notificationService.sendProductOperationEmail(
@@ -203,8 +223,6 @@ public class ProductServiceImpl implements ProductService {
                 .success(true)
                 .build();
             
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Invalid specifications format");
         } catch (IllegalArgumentException e) {
             // Re-throw validation exceptions to be handled by controller
             throw e;
@@ -224,11 +242,12 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new NotFoundException("Product Not Found"));
         
         // Check if product has associated orders
-        if (orderItemRepo.existsByProductId(productId)) {
+        if (orderItemRepo.existsByProductId(productId) || archivedOrderItemRepo.existsByProductId(productId)) {
             throw new DataIntegrityViolationException("Product has associated orders");
         }
         
         productRepo.delete(product);
+        onProductDeleted(productId);
         
         notificationService.sendProductOperationEmail(
             userService.getCurrentUser().getEmail(),
@@ -245,32 +264,55 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Response getProductById(Long productId) {
-        Product product = productRepo.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-        return buildProductResponse(product);
+        ProductDto productDto = productCacheService.get(productId, this::loadProductDto);
+        return Response.builder()
+                .status(200)
+                .product(productDto)
+                .build();
+    }
+
+    @Override
+    public Response getProductCacheStats() {
+        return Response.builder()
+                .status(200)
+                .message("Product cache statistics")
+                .data(productCacheService.stats())
+                .build();
     }
 
  
     @Override
-    public Response getAllProducts(Pageable pageable) {
+    public Response getAllProducts(Pageable pageable, Set<ProductField> fields) {
         validatePageable(pageable); // Reuse interface default method
         
-        Page<Product> productsPage = productRepo.findAll(pageable);
+        Page<ProductSummary> productsPage = productRepo.findSummaries(null, pageable, businessLogicColumns(fields));
         
         List<ProductDto> dtos = productsPage.getContent().stream()
-            .map(this::mapToDtoWithBusinessLogic)
+            .map(product -> applyBusinessLogic(entityDtoMapper.mapProductSummaryToDto(product, fields), product))
             .collect(Collectors.toList());
 
         return buildSuccessResponse(dtos, productsPage.getTotalElements());
     }
     
     // --- Helper Methods ---
-    private ProductDto mapToDtoWithBusinessLogic(Product product) {
-        ProductDto dto = entityDtoMapper.mapProductToDtobasic(product);
-        dto.setPurchasable(product.getType() != ProductType.NEW);
+    private ProductDto applyBusinessLogic(ProductDto dto, ProductSummary product) {
+        if (dto.getPurchasable() != null) {
+            dto.setPurchasable(product.type() != ProductType.NEW);
+        }
         return dto;
     }
     
+    // Purchasability is derived from the type, which is then read even when not returned
+    private static Set<ProductField> businessLogicColumns(Set<ProductField> fields) {
+        return fields.contains(ProductField.PURCHASABLE) ? ProductField.with(fields, ProductField.TYPE) : fields;
+    }
+    
+    private List<ProductDto> selectFields(List<ProductDto> products, Set<ProductField> fields) {
+        return products.stream()
+            .map(product -> entityDtoMapper.mapProductDtoFields(product, fields))
+            .collect(Collectors.toList());
+    }
+    
     private Response buildSuccessResponse(List<ProductDto> dtos, long totalCount) {
         return Response.builder()
             .status(200)
@@ -289,7 +331,7 @@ public class ProductServiceImpl implements ProductService {
         }
         
         List<ProductDto> productDtoList = products.stream()
-                .map(this::mapProductToDtoWithSpecs)
+                .map(entityDtoMapper::mapProductToDtobasic)
                 .collect(Collectors.toList());
 
         return Response.builder()
@@ -300,80 +342,80 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Response searchProduct(String searchValue) {
-        // First try numeric search (for prices)
-        try {
-            BigDecimal priceValue = new BigDecimal(searchValue);
-            List<Product> priceMatches = productRepo.findByPrice(priceValue);
-            if (!priceMatches.isEmpty()) {
-                return buildSearchResponse(priceMatches);
-            }
-        } catch (NumberFormatException e) {
-            // Not a numeric search term
-        }
-
-        // Then try full text search
-        List<Product> textMatches = productRepo.fullTextSearch(searchValue, Pageable.unpaged()).getContent();
+        Response response = searchProduct(searchValue, Pageable.unpaged());
+        response.setMessage("Found " + response.getProductList().size() + " matching products");
+        return response;
+    }
+    
+    @Override
+    public Response searchProduct(String searchValue, Pageable pageable) {
+        return searchProduct(searchValue, pageable, false, ProductField.ALL);
+    }
 
-        // Then try specifications search
-        List<Product> specMatches = productRepo.searchInSpecifications(searchValue, Pageable.unpaged()).getContent();
+    @Override
+    public Response searchProduct(String searchValue, Pageable pageable, boolean includeFacets, Set<ProductField> fields) {
+        if (!productSearchExecutor.isReady()) {
+            // Facets need the in-memory indexes and are left out until they have loaded
+            Response response = searchProductFromRepo(searchValue, pageable);
+            response.setProductList(selectFields(response.getProductList(), fields));
+            return response;
+        }
 
-        // Combine results (remove duplicates)
-        Set<Product> combinedResults = new LinkedHashSet<>();
-        combinedResults.addAll(textMatches);
-        combinedResults.addAll(specMatches);
+        // One pass over the price, text and specification matchers: deduplicated, ranked, then paged
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        CatalogPage results = productSearchExecutor.search(searchValue, offset, limit, includeFacets);
 
-        if (combinedResults.isEmpty()) {
+        if (results.total() == 0) {
             throw new NotFoundException("No products found matching: " + searchValue);
         }
 
-        return buildSearchResponse(new ArrayList<>(combinedResults));
+        Response response = buildPaginatedSearchResponse(selectFields(results.products(), fields), results.total());
+        if (results.facets() != null) {
+            response.setData(Map.of("facets", results.facets()));
+        }
+        return response;
     }
-    
+
     @Override
-    public Response searchProduct(String searchValue, Pageable pageable) {
+    public Response suggestProducts(String prefix, int limit) {
+        if (limit < 1 || limit > ProductSuggestIndex.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + ProductSuggestIndex.MAX_SUGGESTIONS);
+        }
+
+        // Served from memory only; nothing is suggested until the index has loaded
+        List<SuggestionDto> suggestions = productSuggestIndex.suggest(prefix, limit);
+        return Response.builder()
+            .status(200)
+            .message(suggestions.size() + " suggestions")
+            .data(Map.of("suggestions", suggestions))
+            .build();
+    }
+
+    // Database search used only while the in-memory indexes are still loading
+    private Response searchProductFromRepo(String searchValue, Pageable pageable) {
         // First try numeric search (for prices)
         try {
             BigDecimal priceValue = new BigDecimal(searchValue);
             Page<Product> priceMatches = productRepo.findByPrice(priceValue, pageable);
             if (!priceMatches.isEmpty()) {
-                return buildPaginatedSearchResponse(priceMatches.getContent(), priceMatches.getTotalElements());
+                return buildPaginatedSearchResponse(priceMatches.getContent().stream()
+                    .map(entityDtoMapper::mapProductToDtobasic)
+                    .collect(Collectors.toList()), priceMatches.getTotalElements());
             }
         } catch (NumberFormatException e) {
             // Not a numeric search term
         }
 
-        // Then try full text search
-        Page<Product> textMatches = productRepo.fullTextSearch(searchValue, pageable);
-
-        // Then try specifications search
-        Page<Product> specMatches = productRepo.searchInSpecifications(searchValue, pageable);
-
-        // Combine results (remove duplicates)
-        Set<Product> combinedResults = new LinkedHashSet<>();
-        combinedResults.addAll(textMatches.getContent());
-        combinedResults.addAll(specMatches.getContent());
-
-        if (combinedResults.isEmpty()) {
+        // Text and specification matches in one select: no duplicates across pages and an exact total
+        Page<Product> matches = productRepo.searchTextAndSpecifications(searchValue, pageable);
+        if (matches.isEmpty()) {
             throw new NotFoundException("No products found matching: " + searchValue);
         }
 
-        return buildPaginatedSearchResponse(
-            new ArrayList<>(combinedResults),
-            textMatches.getTotalElements() + specMatches.getTotalElements()
-        );
-    }
-
-    // Helper method for non-paginated search
-    private Response buildSearchResponse(List<Product> products) {
-        List<ProductDto> dtos = products.stream()
-            .map(this::mapProductToDtoWithSpecs)
-            .collect(Collectors.toList());
-        
-        return Response.builder()
-            .status(200)
-            .message("Found " + dtos.size() + " matching products")
-            .productList(dtos)
-            .build();
+        return buildPaginatedSearchResponse(matches.getContent().stream()
+            .map(entityDtoMapper::mapProductToDtobasic)
+            .collect(Collectors.toList()), matches.getTotalElements());
     }
 
     @Override
@@ -419,7 +461,7 @@ public class ProductServiceImpl implements ProductService {
                 }
                 return true;
             })
-            .map(this::mapProductToDtoWithSpecs)
+            .map(entityDtoMapper::mapProductToDtobasic)
             .collect(Collectors.toList());
 
         return Response.builder()
@@ -460,32 +502,46 @@ public class ProductServiceImpl implements ProductService {
     }
 
     // Helper methods
-    private Response buildProductResponse(Product product) {
-        ProductDto productDto = entityDtoMapper.mapProductToDtobasic(product);
-        
-        if (product.getSpecifications() != null) {
-            try {
-                Map<String, Object> specs = objectMapper.readValue(
-                    product.getSpecifications(), 
-                    new TypeReference<Map<String, Object>>() {}
-                );
-                productDto.setSpecifications(specs);
-            } catch (JsonProcessingException e) {
-                log.error("Error parsing specifications JSON", e);
-            }
-        }
+    private ProductDto loadProductDto(Long productId) {
+        Product product = productRepo.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Product Not Found"));
+        return entityDtoMapper.mapProductToDtobasic(product);
+    }
 
-        return Response.builder()
-                .status(200)
-                .product(productDto)
-                .build();
+    // Refreshes derived state for a product once the write that changed it has committed
+    private void onProductSaved(Product product) {
+        ProductDto snapshot = entityDtoMapper.mapProductToDtobasic(product);
+        afterCommit(() -> {
+            productCacheService.evict(snapshot.getId());
+            catalogIndexer.productSaved(snapshot);
+            catalogVersionService.bump();
+        });
     }
 
-    private Response buildPaginatedSearchResponse(List<Product> products, long totalCount) {
-        List<ProductDto> dtos = products.stream()
-            .map(this::mapProductToDtoWithSpecs)
-            .collect(Collectors.toList());
-        
+    private void onProductDeleted(Long productId) {
+        afterCommit(() -> {
+            productCacheService.evict(productId);
+            catalogIndexer.productDeleted(productId);
+            stockLedger.remove(productId);
+            cartStore.removeProduct(productId);
+            catalogVersionService.bump();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Response buildPaginatedSearchResponse(List<ProductDto> dtos, long totalCount) {
         return Response.builder()
             .status(200)
             .message("Found " + dtos.size() + " matching products (out of " + totalCount + ")")
@@ -496,20 +552,6 @@ public class ProductServiceImpl implements ProductService {
     
    
 
-    private ProductDto mapProductToDtoWithSpecs(Product product) {
-        ProductDto dto = entityDtoMapper.mapProductToDtobasic(product);
-        if (product.getSpecifications() != null) {
-            try {
-                dto.setSpecifications(objectMapper.readValue(
-                    product.getSpecifications(),
-                    new TypeReference<Map<String, Object>>() {}
-                ));
-            } catch (JsonProcessingException e) {
-                log.error("Error parsing specs for product {}", product.getId(), e);
-            }
-        }
-        return dto;
-    }
     
     
     
@@ -517,11 +559,12 @@ public class ProductServiceImpl implements ProductService {
     
     
     @Override
-    public Response getPurchasableProductsPaginated(Pageable pageable) {
-        Page<Product> products = productRepo.findByPurchasableTrue(pageable);
+    public Response getPurchasableProductsPaginated(Pageable pageable, Set<ProductField> fields) {
+        Page<ProductSummary> products = productRepo.findSummaries(
+            productSpecification.isPurchasable(true), pageable, fields);
         
         List<ProductDto> productDtos = products.getContent().stream()
-            .map(entityDtoMapper::mapProductToDtobasic)
+            .map(product -> entityDtoMapper.mapProductSummaryToDto(product, fields))
             .collect(Collectors.toList());
             
         return Response.builder()
@@ -533,11 +576,13 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response getDisplayOnlyProductsPaginated(Pageable pageable) {
-        Page<Product> products = productRepo.findByTypeAndPurchasable(ProductType.NEW, false, pageable);
+    public Response getDisplayOnlyProductsPaginated(Pageable pageable, Set<ProductField> fields) {
+        Page<ProductSummary> products = productRepo.findSummaries(
+            productSpecification.hasType(ProductType.NEW).and(productSpecification.isPurchasable(false)),
+            pageable, fields);
         
         List<ProductDto> productDtos = products.getContent().stream()
-            .map(entityDtoMapper::mapProductToDtobasic)
+            .map(product -> entityDtoMapper.mapProductSummaryToDto(product, fields))
             .collect(Collectors.toList());
             
         return Response.builder()
@@ -549,8 +594,11 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response getProductsByTypePaginated(ProductType productType, Pageable pageable) {
-        Page<Product> products = productRepo.findByType(productType, pageable);
+    public Response getProductsByTypePaginated(ProductType productType, Pageable pageable, Set<ProductField> fields) {
+        // Price and purchasability drive the per-type filter below
+        Page<ProductSummary> products = productRepo.findSummaries(
+            productSpecification.hasType(productType), pageable,
+            ProductField.with(fields, ProductField.PRICE, ProductField.PURCHASABLE));
         
         if (products.isEmpty()) {
             throw new NotFoundException("No products found for type: " + productType);
@@ -559,15 +607,15 @@ public class ProductServiceImpl implements ProductService {
         List<ProductDto> productDtoList = products.stream()
             .filter(product -> {
                 if (productType == ProductType.NEW) {
-                    return product.getPrice() == null;
+                    return product.price() == null;
                 } else if (productType == ProductType.RECONDITIONED) {
-                    return product.getPrice() != null;
+                    return product.price() != null;
                 } else if (productType == ProductType.PART) {
-                    return product.isPurchasable();
+                    return product.purchasable();
                 }
                 return true;
             })
-            .map(this::mapProductToDtoWithSpecs)
+            .map(product -> entityDtoMapper.mapProductSummaryToDto(product, fields))
             .collect(Collectors.toList());
 
         return Response.builder()
@@ -579,58 +627,91 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response filterProducts(ProductType type, Boolean purchasable, 
+    public Response filterProducts(ProductType type, Boolean purchasable, Long categoryId,
                                  BigDecimal minPrice, BigDecimal maxPrice, 
-                                 Pageable pageable) {
-        // Validate price range
-        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
-            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
-        }
-
-        Page<Product> products;
-        
-        if (type != null && purchasable != null && minPrice != null && maxPrice != null) {
-            products = productRepo.findByTypeAndPurchasableAndPriceBetween(
-                type, purchasable, minPrice, maxPrice, pageable);
-        }
-        else if (minPrice != null || maxPrice != null) {
-            BigDecimal effectiveMin = minPrice != null ? minPrice : BigDecimal.ZERO;
-            BigDecimal effectiveMax = maxPrice != null ? maxPrice : new BigDecimal(Long.MAX_VALUE);
-            
-            if (type != null && purchasable != null) {
-                products = productRepo.findByTypeAndPurchasableAndPriceBetween(
-                    type, purchasable, effectiveMin, effectiveMax, pageable);
-            } else if (type != null) {
-                products = productRepo.findByTypeAndPriceBetween(
-                    type, effectiveMin, effectiveMax, pageable);
-            } else if (purchasable != null) {
-                products = productRepo.findByPurchasableAndPriceBetween(
-                    purchasable, effectiveMin, effectiveMax, pageable);
-            } else {
-                products = productRepo.findByPriceBetween(
-                    effectiveMin, effectiveMax, pageable);
-            }
-        }
-        // Non-price filters
-        else if (type != null && purchasable != null) {
-            products = productRepo.findByTypeAndPurchasable(type, purchasable, pageable);
-        } else if (type != null) {
-            products = productRepo.findByType(type, pageable);
-        } else if (purchasable != null) {
-            products = productRepo.findByPurchasable(purchasable, pageable);
+                                 Pageable pageable, boolean includeFacets, Set<ProductField> fields) {
+        BigDecimal effectiveMin = effectiveMinPrice(minPrice, maxPrice);
+        CatalogQuery query = new CatalogQuery(type, purchasable, categoryId, effectiveMin, maxPrice);
+        List<ProductDto> productDtos;
+        long totalCount;
+        CatalogFacets facets = null;
+
+        if (productCatalogIndex.isReady() && pageable.getSort().isUnsorted()) {
+            CatalogPage page = productCatalogIndex.query(
+                query, pageable.getOffset(), pageable.getPageSize(), includeFacets);
+            productDtos = selectFields(page.products(), fields);
+            totalCount = page.total();
+            facets = page.facets();
         } else {
-            products = productRepo.findAll(pageable);
+            // Index still loading (or a custom sort): fall back to a single SQL query over the requested columns
+            Page<ProductSummary> products = productRepo.findSummaries(
+                filterSpecification(type, purchasable, categoryId, effectiveMin, maxPrice), pageable, fields);
+            productDtos = products.getContent().stream()
+                .map(product -> entityDtoMapper.mapProductSummaryToDto(product, fields))
+                .collect(Collectors.toList());
+            totalCount = products.getTotalElements();
+            if (includeFacets && productCatalogIndex.isReady()) {
+                facets = productCatalogIndex.facets(query);
+            }
         }
 
-        List<ProductDto> productDtos = products.getContent().stream()
-            .map(this::mapProductToDtoWithSpecs)
-            .collect(Collectors.toList());
-
         return Response.builder()
             .status(200)
             .productList(productDtos)
-            .totalCount(products.getTotalElements())
+            .totalCount(totalCount)
+            .data(facets != null ? Map.of("facets", facets) : null)
             .message("Filtered products retrieved")
             .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Response filterProducts(ProductType type, Boolean purchasable, Long categoryId,
+                                 BigDecimal minPrice, BigDecimal maxPrice,
+                                 String sort, String cursor, int size, Set<ProductField> fields) {
+        BigDecimal effectiveMin = effectiveMinPrice(minPrice, maxPrice);
+        ProductCursor position = ProductKeysetService.start(sort, cursor, size);
+
+        if (productCatalogIndex.isReady() && "id".equals(position.field())) {
+            // The catalog index is already in id order: seek to the cursor's slot
+            List<ProductDto> rows = productCatalogIndex.seek(
+                new CatalogQuery(type, purchasable, categoryId, effectiveMin, maxPrice),
+                position.id(), position.ascending(), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<ProductDto> page = hasNext ? rows.subList(0, size) : rows;
+            return ProductKeysetService.build(selectFields(page, fields),
+                hasNext ? position.after(page.get(size - 1)).encode() : null);
+        }
+
+        return productKeysetService.scroll(filterSpecification(type, purchasable, categoryId, effectiveMin, maxPrice),
+            sort, cursor, size, fields);
+    }
+
+    @Override
+    public Response getAllProducts(String sort, String cursor, int size, Set<ProductField> fields) {
+        return productKeysetService.scroll(null, sort, cursor, size, businessLogicColumns(fields),
+            product -> applyBusinessLogic(entityDtoMapper.mapProductSummaryToDto(product, fields), product));
+    }
+
+    @Override
+    public Response getPurchasableProducts(String sort, String cursor, int size, Set<ProductField> fields) {
+        return productKeysetService.scroll(productSpecification.isPurchasable(true), sort, cursor, size, fields);
+    }
+
+    private static Specification<Product> filterSpecification(ProductType type, Boolean purchasable, Long categoryId,
+                                                              BigDecimal minPrice, BigDecimal maxPrice) {
+        return Specification.where(productSpecification.hasType(type))
+            .and(productSpecification.isPurchasable(purchasable))
+            .and(productSpecification.inCategory(categoryId))
+            .and(productSpecification.priceBetween(minPrice, maxPrice));
+    }
+
+    // Any price bound restricts results to priced products, starting from zero
+    private static BigDecimal effectiveMinPrice(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+        return minPrice != null || maxPrice != null
+                ? (minPrice != null ? minPrice : BigDecimal.ZERO)
+                : null;
+    }
+}
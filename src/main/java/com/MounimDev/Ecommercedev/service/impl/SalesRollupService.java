@@ -0,0 +1,229 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.entity.Order;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.repository.SalesRollupRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the sales_rollups table in step with order items. Order writes and status changes add
+ * signed quantity and revenue deltas per day, product and status in memory; a scheduled flush
+ * upserts them as batched {@code quantity = quantity + delta} writes into the total, product and
+ * category rows. Reports can lag the order tables by one flush interval.
+ *
+ * Category rows take the product's category at flush time, so a product moved to another
+ * category carries its later changes there; a rebuild regroups everything by current category.
+ *
+ * Deltas still in memory when the process dies are lost, and a change racing a recompute can be
+ * counted twice; a scheduled reconcile recomputes the most recent days from the order tables, so
+ * either only skews the reports until its next run. Startup does the same.
+ */
+@Component
+@Slf4j
+public class SalesRollupService {
+
+    private static final String COLUMNS = "INSERT INTO sales_rollups (sale_date, dimension, dimension_id, status, quantity, revenue) ";
+    // Row alias form (MySQL 8.0.19+); VALUES(col) in the update clause is deprecated
+    private static final String ADD = " AS delta ON DUPLICATE KEY UPDATE quantity = sales_rollups.quantity + delta.quantity, "
+            + "revenue = sales_rollups.revenue + delta.revenue";
+
+    private static final String UPSERT_TOTAL = COLUMNS + "VALUES (?, 'TOTAL', 0, ?, ?, ?)" + ADD;
+    private static final String UPSERT_PRODUCT = COLUMNS + "VALUES (?, 'PRODUCT', ?, ?, ?, ?)" + ADD;
+    // A SELECT takes no row alias, so it is wrapped in a derived table the update can name
+    private static final String UPSERT_CATEGORY = COLUMNS + "SELECT * FROM (SELECT ? AS sale_date, 'CATEGORY' AS dimension, "
+            + "p.category_id AS dimension_id, ? AS status, ? AS quantity, ? AS revenue "
+            + "FROM products p WHERE p.id = ? AND p.category_id IS NOT NULL)" + ADD;
+
+    // Archived items still count towards the rollups
+    private static final String ALL_ITEMS = items("");
+    // Items created since a given time, one parameter per table
+    private static final String RECENT_ITEMS = items(" WHERE created_at >= ?");
+
+    private final SalesRollupRepo salesRollupRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileDays;
+
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    public SalesRollupService(SalesRollupRepo salesRollupRepo, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${rollup.reconcile-days:2}") int reconcileDays) {
+        this.salesRollupRepo = salesRollupRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileDays = reconcileDays;
+    }
+
+    // First start with existing orders fills the rollups from order_items; later starts repair the recent days
+    @PostConstruct
+    void backfill() {
+        if (salesRollupRepo.count() == 0) {
+            rebuild();
+        } else {
+            reconcile();
+        }
+    }
+
+    // Call once the order is committed
+    public void orderPlaced(Order order) {
+        for (OrderItem orderItem : order.getOrderItemList()) {
+            add(orderItem.getCreatedAt(), orderItem.getProduct().getId(), orderItem.getStatus(),
+                    orderItem.getQuantity(), orderItem.getPrice());
+        }
+    }
+
+    // Call once the status change is committed; moves the item's totals from one status to the other
+    public void statusChanged(LocalDateTime createdAt, Long productId, int quantity, BigDecimal price,
+                              OrderStatus previous, OrderStatus next) {
+        add(createdAt, productId, previous, -quantity, price != null ? price.negate() : null);
+        add(createdAt, productId, next, quantity, price);
+    }
+
+    private void add(LocalDateTime createdAt, Long productId, OrderStatus status, long quantity, BigDecimal revenue) {
+        if (createdAt == null || productId == null || status == null) {
+            return;
+        }
+        pending.merge(new Key(createdAt.toLocalDate(), productId, status),
+                new Delta(quantity, revenue != null ? revenue : BigDecimal.ZERO), Delta::plus);
+    }
+
+    @Scheduled(fixedDelayString = "${rollup.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        flushPending();
+    }
+
+    // False when the write failed and the deltas went back to pending
+    private boolean flushPending() {
+        Map<Key, Delta> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta != null && !delta.isZero()) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        // Totals across products are added up here, one row per day and status
+        Map<Key, Delta> totals = new HashMap<>();
+        List<Object[]> productRows = new ArrayList<>(batch.size());
+        List<Object[]> categoryRows = new ArrayList<>(batch.size());
+        batch.forEach((key, delta) -> {
+            totals.merge(new Key(key.day(), 0L, key.status()), delta, Delta::plus);
+            productRows.add(new Object[] { key.day(), key.productId(), key.status().ordinal(), delta.quantity(), delta.revenue() });
+            categoryRows.add(new Object[] { key.day(), key.status().ordinal(), delta.quantity(), delta.revenue(), key.productId() });
+        });
+        List<Object[]> totalRows = new ArrayList<>(totals.size());
+        totals.forEach((key, delta) -> totalRows.add(
+                new Object[] { key.day(), key.status().ordinal(), delta.quantity(), delta.revenue() }));
+
+        try {
+            // One transaction, so a failed flush applies nothing and is simply retried next time
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPSERT_TOTAL, totalRows);
+                jdbcTemplate.batchUpdate(UPSERT_PRODUCT, productRows);
+                jdbcTemplate.batchUpdate(UPSERT_CATEGORY, categoryRows);
+            });
+            return true;
+        } catch (DataAccessException e) {
+            batch.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+            log.warn("Sales rollup flush of {} rows failed, will retry: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Recomputes every rollup row from order_items and its archive. Deltas recorded while the
+     * rebuild runs may be counted twice or not at all, so run it when orders are quiet.
+     */
+    public synchronized void rebuild() {
+        pending.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM sales_rollups");
+            insertFrom(ALL_ITEMS);
+        });
+        log.info("Sales rollups rebuilt: {} rows", salesRollupRepo.count());
+    }
+
+    /**
+     * Recomputes the last {@code rollup.reconcile-days} days (today included) from order_items and
+     * its archive, after flushing what is pending; skipped when that flush fails, since the deltas
+     * kept for retry would then be counted twice.
+     */
+    @Scheduled(cron = "${rollup.reconcile-cron:0 15 * * * *}")
+    public synchronized void reconcile() {
+        if (!flushPending()) {
+            return;
+        }
+        LocalDate from = LocalDate.now().minusDays(reconcileDays - 1L);
+        LocalDateTime start = from.atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM sales_rollups WHERE sale_date >= ?", from);
+            insertFrom(RECENT_ITEMS, start, start);
+        });
+        log.debug("Sales rollups reconciled from {}", from);
+    }
+
+    // The total, product and category rows of the given items; args fill the items' placeholders
+    private void insertFrom(String items, Object... args) {
+        jdbcTemplate.update(COLUMNS
+                + "SELECT DATE(oi.created_at), 'TOTAL', 0, oi.status, SUM(oi.quantity), COALESCE(SUM(oi.price), 0) "
+                + "FROM " + items + " WHERE oi.status IS NOT NULL AND oi.created_at IS NOT NULL "
+                + "GROUP BY DATE(oi.created_at), oi.status", args);
+        jdbcTemplate.update(COLUMNS
+                + "SELECT DATE(oi.created_at), 'PRODUCT', oi.product_id, oi.status, SUM(oi.quantity), COALESCE(SUM(oi.price), 0) "
+                + "FROM " + items + " WHERE oi.status IS NOT NULL AND oi.created_at IS NOT NULL AND oi.product_id IS NOT NULL "
+                + "GROUP BY DATE(oi.created_at), oi.product_id, oi.status", args);
+        jdbcTemplate.update(COLUMNS
+                + "SELECT DATE(oi.created_at), 'CATEGORY', p.category_id, oi.status, SUM(oi.quantity), COALESCE(SUM(oi.price), 0) "
+                + "FROM " + items + " JOIN products p ON p.id = oi.product_id "
+                + "WHERE oi.status IS NOT NULL AND oi.created_at IS NOT NULL AND p.category_id IS NOT NULL "
+                + "GROUP BY DATE(oi.created_at), p.category_id, oi.status", args);
+    }
+
+    private static String items(String where) {
+        return "(SELECT created_at, status, product_id, quantity, price FROM order_items" + where
+                + " UNION ALL SELECT created_at, status, product_id, quantity, price FROM order_items_archive" + where + ") oi";
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private record Key(LocalDate day, Long productId, OrderStatus status) {
+    }
+
+    private record Delta(long quantity, BigDecimal revenue) {
+        Delta plus(Delta other) {
+            return new Delta(quantity + other.quantity, revenue.add(other.revenue));
+        }
+
+        boolean isZero() {
+            return quantity == 0 && revenue.signum() == 0;
+        }
+    }
+}
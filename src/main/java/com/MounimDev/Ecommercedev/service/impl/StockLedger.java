@@ -0,0 +1,267 @@
+package com.MounimDev.Ecommercedev.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.entity.Inventory;
+import com.MounimDev.Ecommercedev.exception.InsufficientStockException;
+import com.MounimDev.Ecommercedev.repository.InventoryRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory stock ledger. Reservations are a compare-and-set on the product's own counter, so
+ * checkouts on different products never contend and checkouts on one hot product never wait on a
+ * lock or a database row.
+ *
+ * Every change is also appended to inventory_journal as it happens, an insert that locks no
+ * inventory row. A scheduled flush folds the journal into {@code inventory.available} and empties
+ * it in one transaction, and startup does the same before loading, so a crash between flushes
+ * loses no change. A change the journal cannot take (the database is down) is kept in memory and
+ * written directly by the next flush instead; only those are lost if the process dies first.
+ *
+ * The counters are the source of truth while the application runs, so one instance owns the
+ * inventory table. The SQL is MySQL's: {@code INSERT IGNORE} and the {@code LIMIT ... FOR UPDATE}
+ * fold need rewriting for another database.
+ */
+@Component
+@Slf4j
+public class StockLedger {
+
+    private static final int FOLD_CHUNK_SIZE = 5000;
+
+    private final InventoryRepo inventoryRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Journal writes and row deletes commit on their own, whatever transaction the caller is in
+    private final TransactionTemplate ownTransaction;
+
+    // Only products with an inventory row are tracked; any other product is not limited
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+
+    public StockLedger(InventoryRepo inventoryRepo, JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager) {
+        this.inventoryRepo = inventoryRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void load() {
+        // Changes journaled before a crash land in inventory before it is read
+        int folded = transactionTemplate.execute(status -> foldJournal(LocalDateTime.now()));
+        for (Inventory inventory : inventoryRepo.findAll()) {
+            stocks.put(inventory.getProductId(), new Stock(inventory.getAvailable()));
+        }
+        log.info("Stock ledger loaded {} tracked products after folding {} journaled changes", stocks.size(), folded);
+    }
+
+    public OptionalLong available(Long productId) {
+        Stock stock = stocks.get(productId);
+        return stock != null ? OptionalLong.of(stock.available.get()) : OptionalLong.empty();
+    }
+
+    /**
+     * Takes every quantity or none: if one product runs short, what was already taken for the
+     * others is put back before this throws. The reservation is journaled before this returns;
+     * if that fails nothing is taken.
+     *
+     * @param quantities product id -> quantity, one entry per product
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        List<Taken> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (line.getValue() <= 0) {
+                undo(taken);
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+            Stock stock = stocks.get(line.getKey());
+            if (stock == null) {
+                continue;
+            }
+            if (!stock.tryTake(line.getValue())) {
+                undo(taken);
+                throw new InsufficientStockException("Insufficient stock for product " + line.getKey());
+            }
+            taken.add(new Taken(line.getKey(), stock, -line.getValue()));
+        }
+        try {
+            journal(taken);
+        } catch (DataAccessException e) {
+            undo(taken);
+            throw e;
+        }
+    }
+
+    public void release(Map<Long, Integer> quantities) {
+        List<Taken> released = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            Stock stock = stocks.get(productId);
+            if (stock != null && quantity > 0) {
+                stock.available.addAndGet(quantity);
+                released.add(new Taken(productId, stock, quantity));
+            }
+        });
+        journalOrKeep(released);
+    }
+
+    /**
+     * Sets the stock on hand, starting to track the product if it was not tracked yet.
+     * Reservations running at the same time are applied on top of the new level.
+     */
+    public void set(Long productId, long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock cannot be negative");
+        }
+        if (!stocks.containsKey(productId)) {
+            // The row exists before the counter does, so folded changes always have a row to land on
+            jdbcTemplate.update("INSERT IGNORE INTO inventory (product_id, available, updated_at) VALUES (?, 0, ?)",
+                    productId, LocalDateTime.now());
+            stocks.putIfAbsent(productId, new Stock(0));
+        }
+        Stock stock = stocks.get(productId);
+        long previous = stock.available.getAndSet(quantity);
+        journalOrKeep(List.of(new Taken(productId, stock, quantity - previous)));
+    }
+
+    /**
+     * Stops tracking a deleted product; its journaled changes are dropped with the row. Called after
+     * the product's transaction has committed, so the row is deleted in a transaction of its own.
+     */
+    public void remove(Long productId) {
+        stocks.remove(productId);
+        ownTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM inventory_journal WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:500}")
+    public void flush() {
+        List<Taken> pending = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        stocks.forEach((productId, stock) -> {
+            long delta = stock.unjournaled.getAndSet(0);
+            if (delta != 0) {
+                pending.add(new Taken(productId, stock, delta));
+                updates.add(new Object[] { delta, now, productId });
+            }
+        });
+
+        try {
+            // One transaction, so a failed flush applies nothing and is simply retried next time
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE inventory SET available = available + ?, updated_at = ? WHERE product_id = ?", updates);
+                }
+                foldJournal(now);
+            });
+        } catch (DataAccessException e) {
+            pending.forEach(change -> change.stock().unjournaled.addAndGet(change.quantity()));
+            log.warn("Stock flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Adds journaled changes to inventory and deletes them, oldest first, in the caller's transaction.
+     * The locking read waits for journal inserts still committing and the range it locks takes no new
+     * ones, so every row up to the last one read is summed exactly once.
+     */
+    private int foldJournal(LocalDateTime now) {
+        int folded = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query("SELECT id, product_id, delta FROM inventory_journal ORDER BY id LIMIT ? FOR UPDATE",
+                    (rs, rowNum) -> new Object[] { rs.getLong("id"), rs.getLong("product_id"), rs.getLong("delta") },
+                    FOLD_CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> deltas = new HashMap<>();
+            for (Object[] row : rows) {
+                deltas.merge((Long) row[1], (Long) row[2], Long::sum);
+            }
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((productId, delta) -> updates.add(new Object[] { delta, now, productId }));
+            jdbcTemplate.batchUpdate("UPDATE inventory SET available = available + ?, updated_at = ? WHERE product_id = ?",
+                    updates);
+            jdbcTemplate.update("DELETE FROM inventory_journal WHERE id <= ?", rows.get(rows.size() - 1)[0]);
+            folded += rows.size();
+        } while (rows.size() == FOLD_CHUNK_SIZE);
+        return folded;
+    }
+
+    private void journal(List<Taken> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        changes.forEach(change -> rows.add(new Object[] { change.productId(), change.quantity() }));
+        ownTransaction.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("INSERT INTO inventory_journal (product_id, delta) VALUES (?, ?)", rows));
+    }
+
+    // The counter already moved; if the journal is unreachable the next flush writes the change instead
+    private void journalOrKeep(List<Taken> changes) {
+        try {
+            journal(changes);
+        } catch (DataAccessException e) {
+            changes.forEach(change -> change.stock().unjournaled.addAndGet(change.quantity()));
+            log.warn("Stock journal write failed, keeping {} changes for the next flush: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    private static void undo(List<Taken> taken) {
+        taken.forEach(change -> change.stock().available.addAndGet(-change.quantity()));
+    }
+
+    // A change to one product's counter; negative when stock was taken
+    private record Taken(Long productId, Stock stock, long quantity) {
+    }
+
+    private static final class Stock {
+        private final AtomicLong available;
+        // Change the journal could not take, written directly by the next flush
+        private final AtomicLong unjournaled = new AtomicLong();
+
+        Stock(long available) {
+            this.available = new AtomicLong(available);
+        }
+
+        boolean tryTake(long quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+    }
+}
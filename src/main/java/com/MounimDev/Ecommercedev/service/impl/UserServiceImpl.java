@@ -1,7 +1,11 @@
 package com.MounimDev.Ecommercedev.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,13 +15,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
 
 import com.MounimDev.Ecommercedev.dto.LoginRequest;
+import com.MounimDev.Ecommercedev.dto.OrderItemDto;
 import com.MounimDev.Ecommercedev.dto.Response;
 import com.MounimDev.Ecommercedev.dto.UserDto;
 import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
 import com.MounimDev.Ecommercedev.enums.UserRole;
 import com.MounimDev.Ecommercedev.exception.NotFoundException;
 import com.MounimDev.Ecommercedev.exception.InvalidCredentialsException;
 import com.MounimDev.Ecommercedev.mapper.EntityDtoMapper;
+import com.MounimDev.Ecommercedev.repository.ArchivedOrderItemRepo;
 import com.MounimDev.Ecommercedev.repository.UserRepo;
 import com.MounimDev.Ecommercedev.security.JwtUtils;
 import com.MounimDev.Ecommercedev.service.interf.UserService;
@@ -32,7 +39,11 @@ import lombok.extern.slf4j.Slf4j;
 public class UserServiceImpl implements UserService{
 	
 	
+	// What the live history holds per item: everything but the user, who is the caller
+	private static final Set<OrderItemField> HISTORY_FIELDS = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(OrderItemField.USER)));
+	
 	private final UserRepo userRepo;
+	private final ArchivedOrderItemRepo archivedOrderItemRepo;
 	private final PasswordEncoder passwordEncoder;
 	private final JwtUtils jwtUtils;
 	private final EntityDtoMapper entityDtoMapper;
@@ -178,9 +189,27 @@ public class UserServiceImpl implements UserService{
 
 	@Override
 	public Response getUserInfoAndOrderHistory() {
-		User user = getLoginUser();
+		String email = SecurityContextHolder.getContext().getAuthentication().getName();
+		User user = userRepo.findWithOrderHistoryByEmail(email)
+				.orElseThrow(() -> new UsernameNotFoundException(" User not found"));
 		UserDto userDto = entityDtoMapper.mapUserToDtoPlusAddressAndOrderHistory(user);
 		
+		// Old finished items were moved to the archive; they follow the live ones in the history.
+		// Only users the archiver flagged pay for the extra select
+		if (user.isOrderHistoryArchived()) {
+			List<OrderItemDto> archived = archivedOrderItemRepo.findByUserIdOrderByIdDesc(user.getId()).stream()
+					.map(orderItem -> entityDtoMapper.mapOrderItemToDto(orderItem, HISTORY_FIELDS))
+					.collect(Collectors.toList());
+			if (!archived.isEmpty()) {
+				List<OrderItemDto> history = new ArrayList<>();
+				if (userDto.getOrderItemList() != null) {
+					history.addAll(userDto.getOrderItemList());
+				}
+				history.addAll(archived);
+				userDto.setOrderItemList(history);
+			}
+		}
+		
 		return Response.builder()
 				.status(200)
 				.user(userDto)
@@ -0,0 +1,14 @@
+package com.MounimDev.Ecommercedev.service.interf;
+
+import java.time.LocalDate;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+
+public interface AnalyticsService {
+
+	// Quantity and revenue of the items created between from and to, grouped by day, status, product or category
+	Response getSales(LocalDate from, LocalDate to, String groupBy, OrderStatus status);
+	
+	Response rebuildSalesRollups();
+}
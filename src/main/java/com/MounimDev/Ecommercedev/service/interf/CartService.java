@@ -0,0 +1,20 @@
+package com.MounimDev.Ecommercedev.service.interf;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+
+public interface CartService {
+
+	Response getCart();
+	
+	Response addItem(Long productId, int quantity);
+	
+	// 0 removes the line
+	Response setItemQuantity(Long productId, int quantity);
+	
+	Response removeItem(Long productId);
+	
+	Response clearCart();
+	
+	// Places the cart as one order and empties it
+	Response checkout();
+}
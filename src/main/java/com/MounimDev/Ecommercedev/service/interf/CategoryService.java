@@ -1,7 +1,10 @@
 package com.MounimDev.Ecommercedev.service.interf;
 
+import java.util.Set;
+
 import com.MounimDev.Ecommercedev.dto.CategoryDto;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 
 public interface CategoryService {
 
@@ -15,5 +18,7 @@ public interface CategoryService {
 	
 	Response deleteCategory(Long categoryId);
 	
-	Response getProductsByCategory(Long categoryId, int page, int size);
+	Response getProductsByCategory(Long categoryId, int page, int size, Set<ProductField> fields);
+	
+	Response getProductsByCategory(Long categoryId, String sort, String cursor, int size, Set<ProductField> fields);
 }
@@ -0,0 +1,10 @@
+package com.MounimDev.Ecommercedev.service.interf;
+
+import com.MounimDev.Ecommercedev.dto.Response;
+
+public interface InventoryService {
+
+	Response getStock(Long productId);
+	
+	Response setStock(Long productId, long quantity);
+}
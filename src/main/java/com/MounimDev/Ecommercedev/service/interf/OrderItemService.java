@@ -1,17 +1,29 @@
 package com.MounimDev.Ecommercedev.service.interf;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 
+import com.MounimDev.Ecommercedev.dto.OrderItemStatusBulkRequest;
 import com.MounimDev.Ecommercedev.dto.OrderRequest;
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.OrderItemField;
 import com.MounimDev.Ecommercedev.enums.OrderStatus;
 
 public interface OrderItemService {
 
 	Response placeOrder(OrderRequest orderRequest);
+	// Queues a validated order for the batch writer and answers with its reference
+	Response placeOrderAsync(OrderRequest orderRequest);
+	Response getOrderStatus(String reference);
 	Response updateOrderItemStatus(Long orderItemId, String status);
+	// Moves many items at once with chunked set-based updates; reports an outcome per item
+	Response updateOrderItemStatuses(OrderItemStatusBulkRequest request);
 	
-	Response filterOrderItems(OrderStatus status, LocalDateTime startDate , LocalDateTime endDate, Long itemId,Pageable pageable);
+	Response filterOrderItems(OrderStatus status, LocalDateTime startDate , LocalDateTime endDate, Long itemId,Pageable pageable,
+			Set<OrderItemField> fields);
+	// Keyset variant: pages newest first below the id in the cursor; blank starts from the newest item
+	Response filterOrderItems(OrderStatus status, LocalDateTime startDate , LocalDateTime endDate, Long itemId, String cursor,
+			int size, Set<OrderItemField> fields);
 }
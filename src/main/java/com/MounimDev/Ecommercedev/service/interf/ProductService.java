@@ -2,12 +2,14 @@ package com.MounimDev.Ecommercedev.service.interf;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.enums.ProductField;
 import com.MounimDev.Ecommercedev.enums.ProductType;
 
 public interface ProductService {
@@ -25,6 +27,7 @@ public interface ProductService {
     Response deleteProduct(Long productId);
     
     Response getProductById(Long productId);
+    Response getProductCacheStats();
     //Response getAllProducts();
     Response getProductsByType(ProductType productType);
     Response getProductsByCategory(Long categoryId);
@@ -38,13 +41,25 @@ public interface ProductService {
     
     
     
-    Response getPurchasableProductsPaginated(Pageable pageable);
-    Response getDisplayOnlyProductsPaginated(Pageable pageable);
-    Response getProductsByTypePaginated(ProductType productType, Pageable pageable);
-    Response filterProducts(ProductType type, Boolean purchasable, BigDecimal minPrice, 
-                          BigDecimal maxPrice, Pageable pageable);
+    // List views read projections of the requested fields only
+    Response getPurchasableProductsPaginated(Pageable pageable, Set<ProductField> fields);
+    Response getDisplayOnlyProductsPaginated(Pageable pageable, Set<ProductField> fields);
+    Response getProductsByTypePaginated(ProductType productType, Pageable pageable, Set<ProductField> fields);
+    Response filterProducts(ProductType type, Boolean purchasable, Long categoryId,
+                          BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable, boolean includeFacets,
+                          Set<ProductField> fields);
     Response searchProduct(String searchValue, Pageable pageable);
-    Response getAllProducts(Pageable pageable);
+    Response searchProduct(String searchValue, Pageable pageable, boolean includeFacets, Set<ProductField> fields);
+    Response suggestProducts(String prefix, int limit);
+    Response getAllProducts(Pageable pageable, Set<ProductField> fields);
+
+    // Keyset (cursor) listings: no OFFSET and no count query
+    Response getAllProducts(String sort, String cursor, int size, Set<ProductField> fields);
+    Response getPurchasableProducts(String sort, String cursor, int size, Set<ProductField> fields);
+    Response filterProducts(ProductType type, Boolean purchasable, Long categoryId,
+                          BigDecimal minPrice, BigDecimal maxPrice, String sort, String cursor, int size,
+                          Set<ProductField> fields);
+
     default void validatePageable(Pageable pageable) {
         if (pageable.getPageNumber() < 0) {
             throw new IllegalArgumentException("Page index must not be negative");
@@ -1,23 +1,37 @@
 package com.MounimDev.Ecommercedev.specification;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 import org.springframework.data.jpa.domain.Specification;
 
-import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.entity.BaseOrderItem;
+import com.MounimDev.Ecommercedev.entity.User;
 import com.MounimDev.Ecommercedev.enums.OrderStatus;
 
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
 
 
+
+// Filters for order_items and order_items_archive alike: both entities map the same attributes
 public class orderItemSpecification {
 	
-	public static Specification<OrderItem> hasStatus(OrderStatus status){
+	// The order filter's criteria together; typed by what it is assigned to
+	public static <T extends BaseOrderItem> Specification<T> matching(OrderStatus status, LocalDateTime startDate,
+			LocalDateTime endDate, Long itemId){
+		return Specification.where(orderItemSpecification.<T>hasStatus(status))
+				.and(createdBetween(startDate, endDate))
+				.and(hasItemId(itemId));
+	}
+	
+	public static <T extends BaseOrderItem> Specification<T> hasStatus(OrderStatus status){
 		return ((root, query, criteriaBuilder) -> 
 		status !=null ? criteriaBuilder.equal(root.get("status"),status) :null);
 	}
 
 	
-	public static Specification<OrderItem> createdBetween(LocalDateTime startDate, LocalDateTime endDate){
+	public static <T extends BaseOrderItem> Specification<T> createdBetween(LocalDateTime startDate, LocalDateTime endDate){
 		
 		return ((root, query, criteriaBuilder) -> {
 			if(startDate != null && endDate != null) {
@@ -32,8 +46,30 @@ public class orderItemSpecification {
 		});
 	}
 	
-	public static Specification<OrderItem> hasItemId(Long itemId){
+	public static <T extends BaseOrderItem> Specification<T> hasItemId(Long itemId){
 		return ((root, query, criteriaBuilder) ->
 				itemId != null ? criteriaBuilder.equal(root.get("id"), itemId) : null);
 	}
+	
+	public static <T extends BaseOrderItem> Specification<T> idIn(Collection<Long> ids){
+		return ((root, query, criteriaBuilder) ->
+				ids != null ? root.get("id").in(ids) : null);
+	}
+	
+	public static <T extends BaseOrderItem> Specification<T> idBefore(Long lastId){
+		return ((root, query, criteriaBuilder) ->
+				lastId != null ? criteriaBuilder.lessThan(root.get("id"), lastId) : null);
+	}
+	
+	// Loads product, user and the user's address in the same select; skipped for count queries
+	public static <T extends BaseOrderItem> Specification<T> fetchProductAndUser(){
+		return ((root, query, criteriaBuilder) -> {
+			if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+				root.fetch("product", JoinType.LEFT);
+				Fetch<T, User> user = root.fetch("user", JoinType.LEFT);
+				user.fetch("address", JoinType.LEFT);
+			}
+			return null;
+		});
+	}
 }
@@ -0,0 +1,75 @@
+package com.MounimDev.Ecommercedev.specification;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+
+
+public class productSpecification {
+	
+	public static Specification<Product> hasType(ProductType type){
+		return ((root, query, criteriaBuilder) ->
+				type != null ? criteriaBuilder.equal(root.get("type"), type) : null);
+	}
+	
+	public static Specification<Product> isPurchasable(Boolean purchasable){
+		return ((root, query, criteriaBuilder) ->
+				purchasable != null ? criteriaBuilder.equal(root.get("purchasable"), purchasable) : null);
+	}
+	
+	public static Specification<Product> inCategory(Long categoryId){
+		return ((root, query, criteriaBuilder) ->
+				categoryId != null ? criteriaBuilder.equal(root.get("category").get("id"), categoryId) : null);
+	}
+	
+	public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice){
+		return ((root, query, criteriaBuilder) -> {
+			if (minPrice != null && maxPrice != null) {
+				return criteriaBuilder.between(root.get("price"), minPrice, maxPrice);
+			} else if (minPrice != null) {
+				return criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice);
+			} else if (maxPrice != null) {
+				return criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice);
+			} else {
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Rows strictly after (value, id) when ordered by field then id, both in the same direction.
+	 * NULL sort values are treated as lowest, which is how MySQL orders them.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Specification<Product> seekAfter(String field, boolean ascending, Comparable value, Long id){
+		return ((root, query, criteriaBuilder) -> {
+			if (id == null) {
+				return null;
+			}
+			Path<Long> idPath = root.get("id");
+			Predicate nextId = ascending ? criteriaBuilder.greaterThan(idPath, id) : criteriaBuilder.lessThan(idPath, id);
+			if ("id".equals(field)) {
+				return nextId;
+			}
+			
+			Expression<Comparable> key = root.get(field);
+			if (value == null) {
+				Predicate remainingNulls = criteriaBuilder.and(criteriaBuilder.isNull(key), nextId);
+				return ascending ? criteriaBuilder.or(remainingNulls, criteriaBuilder.isNotNull(key)) : remainingNulls;
+			}
+			Predicate beyond = ascending ? criteriaBuilder.greaterThan(key, value) : criteriaBuilder.lessThan(key, value);
+			Predicate tie = criteriaBuilder.and(criteriaBuilder.equal(key, value), nextId);
+			return ascending
+					? criteriaBuilder.or(beyond, tie)
+					: criteriaBuilder.or(beyond, tie, criteriaBuilder.isNull(key));
+		});
+	}
+}
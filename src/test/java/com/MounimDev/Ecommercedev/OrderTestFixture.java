@@ -0,0 +1,122 @@
+package com.MounimDev.Ecommercedev;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.entity.Category;
+import com.MounimDev.Ecommercedev.entity.Order;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.ProductType;
+import com.MounimDev.Ecommercedev.enums.UserRole;
+import com.MounimDev.Ecommercedev.repository.CategoryRepo;
+import com.MounimDev.Ecommercedev.repository.OrderRepo;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+import com.MounimDev.Ecommercedev.repository.UserRepo;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * A buyer, a category and products for the order tests, removed again with every order placed on
+ * those products. Each test gets its own fixture (prototype scope), and names, codes and the
+ * email are unique per run, so tests never collide with each other or with leftovers of an
+ * aborted run.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+public class OrderTestFixture {
+
+	@Autowired private EntityManager entityManager;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private UserRepo userRepo;
+	@Autowired private CategoryRepo categoryRepo;
+	@Autowired private ProductRepo productRepo;
+	@Autowired private OrderRepo orderRepo;
+
+	private final String suffix = UUID.randomUUID().toString();
+	private final List<Product> products = new ArrayList<>();
+	private User user;
+	private Category category;
+
+	public User user() {
+		if (user == null) {
+			user = userRepo.save(User.builder()
+					.name("Test Buyer")
+					.email("buyer-" + suffix + "@test.local")
+					.password("password")
+					.phoneNumber("0600000000")
+					.role(UserRole.USER)
+					.build());
+		}
+		return user;
+	}
+
+	public Category category() {
+		if (category == null) {
+			category = new Category();
+			category.setName("test-" + suffix);
+			category = categoryRepo.save(category);
+		}
+		return category;
+	}
+
+	public Product newProduct() {
+		Product product = new Product();
+		product.setProductCode("T-" + suffix + "-" + products.size());
+		product.setName("Test product " + products.size());
+		product.setType(ProductType.PART);
+		product.setPrice(BigDecimal.TEN);
+		product.setPurchasable(true);
+		product.setCategory(category());
+		product = productRepo.save(product);
+		products.add(product);
+		return product;
+	}
+
+	public List<Product> newProducts(int count) {
+		for (int i = 0; i < count; i++) {
+			newProduct();
+		}
+		return products;
+	}
+
+	public List<Product> products() {
+		return products;
+	}
+
+	// Signs the buyer in on the calling thread, and for MockMvc requests it performs
+	public void signIn() {
+		User buyer = user();
+		TestSecurityContextHolder.setAuthentication(new UsernamePasswordAuthenticationToken(buyer.getEmail(), null,
+				List.of(new SimpleGrantedAuthority(buyer.getRole().name()))));
+	}
+
+	public void cleanUp() {
+		TestSecurityContextHolder.clearContext();
+		if (!products.isEmpty()) {
+			List<Order> orders = transactionTemplate.execute(status -> entityManager
+					.createQuery("SELECT DISTINCT oi.order FROM OrderItem oi WHERE oi.product IN :products", Order.class)
+					.setParameter("products", products)
+					.getResultList());
+			orderRepo.deleteAll(orders);
+			productRepo.deleteAll(products);
+		}
+		if (category != null) {
+			categoryRepo.delete(category);
+		}
+		if (user != null) {
+			userRepo.deleteById(user.getId());
+		}
+	}
+}
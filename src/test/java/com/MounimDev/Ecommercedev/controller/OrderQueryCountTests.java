@@ -0,0 +1,126 @@
+package com.MounimDev.Ecommercedev.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.MounimDev.Ecommercedev.OrderTestFixture;
+import com.MounimDev.Ecommercedev.entity.Address;
+import com.MounimDev.Ecommercedev.entity.Order;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.repository.AddressRepo;
+import com.MounimDev.Ecommercedev.repository.OrderRepo;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The order filter and my-info endpoints must run the same number of SQL statements
+ * however many order items (and distinct products) they return.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class OrderQueryCountTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private AddressRepo addressRepo;
+	@Autowired private OrderRepo orderRepo;
+	@Autowired private OrderTestFixture fixture;
+
+	private User user;
+	private Address address;
+	private LocalDateTime startedAt;
+
+	@BeforeEach
+	void setUp() {
+		startedAt = LocalDateTime.now().minusSeconds(1);
+		user = fixture.user();
+
+		address = new Address();
+		address.setStreet("1 Test Street");
+		address.setCity("Casablanca");
+		address.setCountry("Morocco");
+		address.setUser(user);
+		address = addressRepo.save(address);
+	}
+
+	@AfterEach
+	void tearDown() {
+		addressRepo.delete(address);
+		fixture.cleanUp();
+	}
+
+	@Test
+	@WithMockUser(authorities = "ADMIN")
+	void orderFilterStatementCountDoesNotGrowWithItems() throws Exception {
+		placeOrder(3);
+		long few = statementsFor("/order/filter?startDate=" + startedAt);
+
+		placeOrder(20);
+		long many = statementsFor("/order/filter?startDate=" + startedAt);
+
+		assertEquals(few, many);
+		assertTrue(many <= 2, "order filter ran " + many + " statements");
+	}
+
+	@Test
+	void myInfoStatementCountDoesNotGrowWithHistory() throws Exception {
+		fixture.signIn();
+		placeOrder(3);
+		long few = statementsFor("/user/my-info");
+
+		placeOrder(20);
+		long many = statementsFor("/user/my-info");
+
+		assertEquals(few, many);
+		assertTrue(many <= 2, "my-info ran " + many + " statements");
+	}
+
+	private long statementsFor(String url) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get(url)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	// One order with the given number of items, each for a new product
+	private void placeOrder(int items) {
+		Order order = new Order();
+		List<OrderItem> orderItems = new ArrayList<>();
+		for (int i = 0; i < items; i++) {
+			Product product = fixture.newProduct();
+
+			OrderItem orderItem = new OrderItem();
+			orderItem.setProduct(product);
+			orderItem.setQuantity(1);
+			orderItem.setPrice(BigDecimal.TEN);
+			orderItem.setStatus(OrderStatus.PENDING);
+			orderItem.setUser(user);
+			orderItem.setOrder(order);
+			orderItems.add(orderItem);
+		}
+		order.setOrderItemList(orderItems);
+		order.setTotalPrice(BigDecimal.TEN.multiply(BigDecimal.valueOf(items)));
+		orderRepo.save(order);
+	}
+}
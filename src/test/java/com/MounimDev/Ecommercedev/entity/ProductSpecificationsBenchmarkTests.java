@@ -0,0 +1,100 @@
+package com.MounimDev.Ecommercedev.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cost of the specifications on a list response, per product. Before: two parses of the column,
+ * each with a new ObjectMapper (the entity getter, then the service's own mapping), and the parsed
+ * map written back out. After: the stored JSON is wrapped once and written as-is.
+ *
+ * Both paths run the same warm-up and measured rounds over the same rows; the median round is
+ * reported. A list response must also come out the same either way.
+ *
+ * Wall-clock timings vary with the machine and its load, so this is a benchmark run on demand,
+ * not part of the default test run.
+ */
+@Slf4j
+@Tag("benchmark")
+class ProductSpecificationsBenchmarkTests {
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+	private static final int PRODUCTS = 1000;
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int ROUNDS = 15;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<String> columns = new ArrayList<>(PRODUCTS);
+
+	ProductSpecificationsBenchmarkTests() {
+		for (int i = 0; i < PRODUCTS; i++) {
+			columns.add("{\"voltage\":\"" + (12 + i % 4) + "V\",\"weightKg\":" + (i % 50) / 10.0
+					+ ",\"certifications\":[\"CE\",\"RoHS\"],\"dimensions\":{\"w\":" + i % 30 + ",\"h\":20,\"d\":" + i % 7 + "}}");
+		}
+	}
+
+	@Test
+	void listResponseSpecsAreCheaperThanParsingTwice() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			assertEquals(objectMapper.readTree(before(columns.get(i))), objectMapper.readTree(after(columns.get(i))));
+		}
+
+		long before = medianNanosPerProduct(this::before);
+		long after = medianNanosPerProduct(this::after);
+		log.info("Specifications per listed product: before {} ns, after {} ns", before, after);
+
+		assertTrue(after < before, "after took " + after + " ns per product, before " + before + " ns");
+	}
+
+	// The old path: Product.getSpecificationsMap() twice, then the map serialized into the response
+	private String before(String column) throws Exception {
+		Map<String, Object> dto = new LinkedHashMap<>();
+		dto.put("specifications", new ObjectMapper().readValue(column, MAP_TYPE));
+		// mapProductToDtoWithSpecs parsed the column again and replaced what the basic mapping set
+		dto.put("specifications", new ObjectMapper().readValue(column, MAP_TYPE));
+		return objectMapper.writeValueAsString(dto);
+	}
+
+	private String after(String column) throws Exception {
+		Map<String, Object> dto = new LinkedHashMap<>();
+		dto.put("specifications", ProductSpecifications.fromJson(column, objectMapper));
+		return objectMapper.writeValueAsString(dto);
+	}
+
+	private long medianNanosPerProduct(Path path) throws Exception {
+		long[] rounds = new long[ROUNDS];
+		for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			int written = 0;
+			for (String column : columns) {
+				written += path.render(column).length();
+			}
+			long elapsed = System.nanoTime() - start;
+			assertTrue(written > 0);
+			if (round >= 0) {
+				rounds[round] = elapsed / PRODUCTS;
+			}
+		}
+		Arrays.sort(rounds);
+		return rounds[ROUNDS / 2];
+	}
+
+	@FunctionalInterface
+	private interface Path {
+		String render(String column) throws Exception;
+	}
+}
@@ -0,0 +1,127 @@
+package com.MounimDev.Ecommercedev.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.MounimDev.Ecommercedev.dto.ProductDto;
+import com.MounimDev.Ecommercedev.dto.SuggestionDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Suggestions by name, code and model words ranked by units sold, and the heap the index takes
+ * for a large synthetic catalog.
+ */
+@Slf4j
+class ProductSuggestIndexTests {
+
+	private static final String[] WORDS = { "cordless", "drill", "hammer", "impact", "driver", "angle", "grinder",
+			"circular", "saw", "jigsaw", "sander", "router", "planer", "rotary", "tool", "compact", "brushless",
+			"heavy", "duty", "kit", "battery", "charger", "laser", "level", "multi", "cutter", "blower", "vacuum" };
+
+	@Test
+	void suggestsByWordPrefixRankedBySales() {
+		ProductSuggestIndex index = new ProductSuggestIndex();
+		index.rebuild(List.of(
+				product(1L, "Cordless Drill 18V", "DR-1800", "XR18"),
+				product(2L, "Drill Press", "DP-200", "Bench"),
+				product(3L, "Angle Grinder", "AG-115", "XR18")),
+				Map.of(1L, 5L, 2L, 9L));
+
+		assertEquals(List.of(2L, 1L), ids(index.suggest("dri", 10)));
+		assertEquals(List.of(1L), ids(index.suggest("cord dri", 10)));
+		assertEquals(List.of(1L), ids(index.suggest("dr18", 10)));
+		assertEquals(List.of(1L, 3L), ids(index.suggest("xr1", 10)));
+		assertEquals(List.of(), ids(index.suggest("press cordless", 10)));
+	}
+
+	@Test
+	void cancelledSalesLowerTheRanking() {
+		ProductSuggestIndex index = new ProductSuggestIndex();
+		index.rebuild(List.of(product(1L, "Cordless Drill", "DR-1", null), product(2L, "Drill Press", "DP-2", null)),
+				Map.of());
+
+		index.adjustSales(1L, 3);
+		index.adjustSales(2L, 2);
+		assertEquals(List.of(1L, 2L), ids(index.suggest("drill", 10)));
+
+		index.adjustSales(1L, -3);
+		assertEquals(List.of(2L, 1L), ids(index.suggest("drill", 10)));
+		index.adjustSales(1L, -5);
+		assertEquals(0, index.suggest("cordless", 10).get(0).getUnitsSold());
+	}
+
+	@Test
+	void renamedAndRemovedProductsLeaveNoKeysBehind() {
+		ProductSuggestIndex index = new ProductSuggestIndex();
+		List<ProductDto> catalog = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			catalog.add(product(id, "Hammer Drill " + id, "HD-" + id, null));
+		}
+		index.rebuild(catalog, Map.of(7L, 50L));
+		assertEquals(7L, index.suggest("hamm", 10).get(0).getProductId());
+
+		index.upsert(product(7L, "Rotary Tool", "RT-7", null));
+		assertEquals(10, index.suggest("hamm", 10).size());
+		assertTrue(ids(index.suggest("hamm", 10)).stream().noneMatch(id -> id == 7L));
+		assertEquals(List.of(7L), ids(index.suggest("rotary", 10)));
+
+		index.remove(7L);
+		assertEquals(List.of(), ids(index.suggest("rotary", 10)));
+		for (long id = 1; id <= 100; id++) {
+			index.remove(id);
+		}
+		assertEquals(List.of(), ids(index.suggest("h", 10)));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void heapPerProductOnALargeCatalog() {
+		int products = 200_000;
+		List<ProductDto> catalog = new ArrayList<>(products);
+		for (int i = 0; i < products; i++) {
+			String name = WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " "
+					+ WORDS[(i / 53) % WORDS.length] + " " + (i % 997);
+			catalog.add(product((long) i + 1, name, "PC-" + Integer.toString(i, 36).toUpperCase(), "M" + i % 5000));
+		}
+
+		long before = usedHeap();
+		ProductSuggestIndex index = new ProductSuggestIndex();
+		index.rebuild(catalog, Map.of());
+		long after = usedHeap();
+
+		// Rows stay referenced so only the index itself is measured
+		assertEquals(products, catalog.size());
+		assertEquals(10, index.suggest("co", 10).size());
+		log.info("Suggestion index for {} products: {} MB, {} bytes per product", products,
+				(after - before) / (1024 * 1024), (after - before) / products);
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static List<Long> ids(List<SuggestionDto> suggestions) {
+		return suggestions.stream().map(SuggestionDto::getProductId).toList();
+	}
+
+	private static ProductDto product(Long id, String name, String code, String model) {
+		ProductDto product = new ProductDto();
+		product.setId(id);
+		product.setName(name);
+		product.setProductCode(code);
+		product.setModel(model);
+		return product;
+	}
+}
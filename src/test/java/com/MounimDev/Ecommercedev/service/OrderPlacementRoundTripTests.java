@@ -0,0 +1,126 @@
+package com.MounimDev.Ecommercedev.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.dto.OrderItemRequest;
+import com.MounimDev.Ecommercedev.dto.OrderRequest;
+import com.MounimDev.Ecommercedev.OrderTestFixture;
+import com.MounimDev.Ecommercedev.entity.Order;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.entity.User;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.repository.ProductRepo;
+import com.MounimDev.Ecommercedev.service.interf.OrderItemService;
+import com.MounimDev.Ecommercedev.service.interf.UserService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Round trips per placed order. Products are read in one query and the order and its items are
+ * inserted as JDBC batches, so a 30-line order costs about the same as a 3-line one. The baseline
+ * is the old path run against the same data: one product select and one unbatched insert per line.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderPlacementRoundTripTests {
+
+	@Autowired private OrderItemService orderItemService;
+	@Autowired private UserService userService;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private EntityManager entityManager;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private ProductRepo productRepo;
+	@Autowired private OrderTestFixture fixture;
+
+	private List<Product> products;
+
+	@BeforeEach
+	void setUp() {
+		products = fixture.newProducts(30);
+		fixture.signIn();
+	}
+
+	@AfterEach
+	void tearDown() {
+		fixture.cleanUp();
+	}
+
+	@Test
+	void roundTripsPerOrderDoNotGrowWithLines() {
+		long baseline = statementsForOldPath(30);
+		long few = statementsToPlace(3);
+		long many = statementsToPlace(30);
+		log.info("placeOrder round trips: 3 lines = {}, 30 lines = {}, 30 lines on the old path = {}", few, many, baseline);
+
+		assertTrue(baseline >= 2 * 30, "old path ran only " + baseline + " statements for 30 lines");
+		assertTrue(many < baseline, "30 lines took " + many + " statements, the old path " + baseline);
+		// A refill of either id sequence may land in one order but not the other
+		assertTrue(many - few <= 4, "30 lines took " + many + " statements, 3 lines took " + few);
+		assertTrue(many <= 8, "30-line order ran " + many + " statements");
+	}
+
+	// Per line a product select and an insert sent on its own, as identity ids forced; rolled back afterwards
+	private long statementsForOldPath(int lines) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+			User buyer = userService.getLoginUser();
+			Order order = new Order();
+			order.setReference(UUID.randomUUID().toString());
+			List<OrderItem> orderItems = new ArrayList<>();
+			for (int i = 0; i < lines; i++) {
+				Product product = productRepo.findById(products.get(i).getId()).orElseThrow();
+				OrderItem orderItem = new OrderItem();
+				orderItem.setProduct(product);
+				orderItem.setQuantity(1);
+				orderItem.setPrice(product.getPrice());
+				orderItem.setStatus(OrderStatus.PENDING);
+				orderItem.setUser(buyer);
+				orderItem.setOrder(order);
+				orderItems.add(orderItem);
+			}
+			order.setOrderItemList(orderItems);
+			order.setTotalPrice(orderItems.stream().map(OrderItem::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add));
+			entityManager.persist(order);
+			entityManager.flush();
+			status.setRollbackOnly();
+		});
+		return statistics.getPrepareStatementCount();
+	}
+
+	private long statementsToPlace(int lines) {
+		OrderRequest request = new OrderRequest();
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (int i = 0; i < lines; i++) {
+			OrderItemRequest item = new OrderItemRequest();
+			item.setProductId(products.get(i).getId());
+			item.setQuantity(1);
+			items.add(item);
+		}
+		request.setItems(items);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		orderItemService.placeOrder(request);
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,127 @@
+package com.MounimDev.Ecommercedev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MounimDev.Ecommercedev.dto.OrderItemRequest;
+import com.MounimDev.Ecommercedev.dto.OrderRequest;
+import com.MounimDev.Ecommercedev.dto.Response;
+import com.MounimDev.Ecommercedev.OrderTestFixture;
+import com.MounimDev.Ecommercedev.entity.OrderItem;
+import com.MounimDev.Ecommercedev.entity.Product;
+import com.MounimDev.Ecommercedev.enums.OrderStatus;
+import com.MounimDev.Ecommercedev.repository.OrderItemRepo;
+import com.MounimDev.Ecommercedev.service.interf.OrderItemService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Many threads push the same order items through PENDING -> CONFIRMED -> SHIPPED -> DELIVERED at
+ * the same moment. Each transition must be applied exactly once per item: the losers of a race
+ * retry, see the item already moved and change nothing. Without the version check several
+ * threads would apply the same step and the version would not match the number of steps.
+ */
+@SpringBootTest
+class OrderStatusConcurrencyTests {
+
+	private static final int ITEMS = 10;
+	private static final int THREADS = 8;
+	private static final List<OrderStatus> STEPS = List.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+	@Autowired private OrderItemService orderItemService;
+	@Autowired private EntityManager entityManager;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private OrderItemRepo orderItemRepo;
+	@Autowired private OrderTestFixture fixture;
+
+	@BeforeEach
+	void setUp() {
+		fixture.newProducts(ITEMS);
+		fixture.signIn();
+	}
+
+	@AfterEach
+	void tearDown() {
+		fixture.cleanUp();
+	}
+
+	@Test
+	void concurrentTransitionsAreAppliedExactlyOnce() throws Exception {
+		List<Long> itemIds = placeOrder();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			for (OrderStatus step : STEPS) {
+				assertEquals(ITEMS, race(pool, itemIds, step), "items moved to " + step);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for (Long id : itemIds) {
+			OrderItem item = orderItemRepo.findById(id).orElseThrow();
+			assertEquals(OrderStatus.DELIVERED, item.getStatus());
+			assertEquals(STEPS.size(), item.getVersion(), "writes to item " + id);
+		}
+	}
+
+	// Every thread moves every item to the same status at once; returns how many moves were applied
+	private int race(ExecutorService pool, List<Long> itemIds, OrderStatus step) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger applied = new AtomicInteger();
+		Callable<Void> worker = () -> {
+			start.await();
+			for (Long id : itemIds) {
+				Response response = orderItemService.updateOrderItemStatus(id, step.name());
+				if (response.getData().get("previous") != step) {
+					applied.incrementAndGet();
+				}
+			}
+			return null;
+		};
+
+		List<Future<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(pool.submit(worker));
+		}
+		start.countDown();
+		// Rethrows anything a worker failed with, such as running out of retries
+		for (Future<Void> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		return applied.get();
+	}
+
+	private List<Long> placeOrder() {
+		OrderRequest request = new OrderRequest();
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (Product product : fixture.products()) {
+			OrderItemRequest item = new OrderItemRequest();
+			item.setProductId(product.getId());
+			item.setQuantity(1);
+			items.add(item);
+		}
+		request.setItems(items);
+
+		String reference = (String) orderItemService.placeOrder(request).getData().get("reference");
+		return transactionTemplate.execute(status -> entityManager
+				.createQuery("SELECT oi.id FROM OrderItem oi WHERE oi.order.reference = :reference ORDER BY oi.id", Long.class)
+				.setParameter("reference", reference)
+				.getResultList());
+	}
+}